@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+# Сравнение шлюза текущей сборки с шлюзом из указанного коммита под одинаковой нагрузкой.
+# Сервер ShareIt должен быть запущен на localhost:9090 и содержать пользователя и вещь из URL.
+#
+# Запуск: benchmarks/gateway-load-test.sh <baseline-ref> [url] [userId] [threads] [seconds] [connections...]
+# Пример: benchmarks/gateway-load-test.sh <коммит до перехода на WebFlux> http://localhost:8080/items/1 1 8 30 64 256 1024
+set -euo pipefail
+
+BASELINE_REF=${1:?"укажите коммит, с которым сравнивается текущий шлюз"}
+URL=${2:-http://localhost:8080/items/1}
+USER_ID=${3:-1}
+THREADS=${4:-8}
+SECONDS_PER_RUN=${5:-30}
+if [ $# -gt 5 ]; then
+  shift 5
+  CONNECTIONS=("$@")
+else
+  CONNECTIONS=(64 256 1024)
+fi
+
+ROOT=$(git rev-parse --show-toplevel)
+WORK=$(mktemp -d)
+RESULTS="$ROOT/benchmarks/target/gateway-load-test.txt"
+trap 'git -C "$ROOT" worktree remove --force "$WORK/baseline" >/dev/null 2>&1 || true; rm -rf "$WORK"' EXIT
+
+gateway_jar() {
+  ls "$1"/gateway/target/*-exec.jar 2>/dev/null || ls "$1"/gateway/target/shareit-gateway-*.jar | grep -v original
+}
+
+run_gateway() {
+  local name=$1 jar=$2
+  # Одинаковое число потоков для Tomcat (прежний шлюз) и Reactor Netty (текущий)
+  java -Dreactor.netty.ioWorkerCount="$THREADS" -jar "$jar" \
+    --server.tomcat.threads.max="$THREADS" --logging.level.root=WARN \
+    --logging.level.org.springframework.web.client.RestTemplate=WARN >"$WORK/$name.log" 2>&1 &
+  local pid=$!
+  until curl -s -o /dev/null "$URL"; do
+    kill -0 "$pid" 2>/dev/null || { cat "$WORK/$name.log"; exit 1; }
+    sleep 1
+  done
+  for connections in "${CONNECTIONS[@]}"; do
+    echo "$name $(java -cp "$ROOT/benchmarks/target/benchmarks.jar" ru.practicum.shareit.benchmark.GatewayLoadTest \
+      "$URL" "$USER_ID" "$connections" "$SECONDS_PER_RUN")" | tee -a "$RESULTS"
+  done
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+}
+
+git -C "$ROOT" worktree add --detach "$WORK/baseline" "$BASELINE_REF" >/dev/null
+(cd "$WORK/baseline" && mvn -B -q -pl gateway -am package -DskipTests)
+(cd "$ROOT" && mvn -B -q -pl gateway,benchmarks -am package -DskipTests)
+
+mkdir -p "$(dirname "$RESULTS")"
+echo "# $(date -Iseconds) baseline=$(git -C "$ROOT" rev-parse --short "$BASELINE_REF") current=$(git -C "$ROOT" rev-parse --short HEAD) threads=$THREADS" | tee -a "$RESULTS"
+run_gateway baseline "$(gateway_jar "$WORK/baseline")"
+run_gateway current "$(gateway_jar "$ROOT")"
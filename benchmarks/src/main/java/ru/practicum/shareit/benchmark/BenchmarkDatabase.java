@@ -0,0 +1,88 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Контекст сервера без веб-слоя поверх отдельной базы H2 в памяти. База живёт до конца JVM,
+ * поэтому её можно заполнить в одном контексте и открыть в другом.
+ */
+final class BenchmarkDatabase {
+    private static final int BATCH_SIZE = 1000;
+    private static final Map<String, String> ID_COLUMNS = Map.of(
+            "users", "user_id",
+            "requests", "request_id",
+            "items", "item_id",
+            "bookings", "booking_id",
+            "comments", "comment_id");
+
+    private final String url = "jdbc:h2:mem:bench-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1";
+
+    /**
+     * Запускает контекст сервера над базой
+     *
+     * @param properties дополнительные свойства в формате key=value
+     * @return запущенный контекст
+     */
+    ConfigurableApplicationContext start(String... properties) {
+        // Свойства передаются аргументами командной строки, иначе их перекрывает профиль test
+        String[] args = Stream.concat(Stream.of("spring.datasource.url=" + url, "logging.level.root=WARN"),
+                        Arrays.stream(properties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run(args);
+    }
+
+    /**
+     * Создаёт схему миграциями и заполняет базу до запуска контекста, в котором выполняются замеры,
+     * чтобы данные, загружаемые при старте, уже были в базе. Строки вставляются с явными id,
+     * после заполнения последовательности id переводятся за максимальный id таблиц
+     *
+     * @param seed заполнение базы
+     */
+    void seed(Consumer<JdbcTemplate> seed) {
+        try (ConfigurableApplicationContext context = start()) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            seed.accept(jdbcTemplate);
+            ID_COLUMNS.forEach((table, column) -> jdbcTemplate.execute(String.format(
+                    "ALTER SEQUENCE %1$s_seq RESTART WITH (SELECT COALESCE(MAX(%2$s), 0) + 50 FROM %1$s)",
+                    table, column)));
+        }
+    }
+
+    /**
+     * Вставляет строки пакетами по BATCH_SIZE
+     *
+     * @param jdbcTemplate JdbcTemplate
+     * @param sql          INSERT с параметрами
+     * @param rows         значения параметров, генерируются по номеру строки начиная с 1
+     * @param count        количество строк
+     */
+    static void insert(JdbcTemplate jdbcTemplate, String sql, RowValues rows, int count) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= count; i++) {
+            batch.add(rows.of(i));
+            if (batch.size() == BATCH_SIZE || i == count) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    interface RowValues {
+        Object[] of(int row);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.enums.Phase;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Вставка 10 тысяч бронирований через Hibernate одной транзакцией. Результат — вставок в секунду.
+ * batchSize=1 отключает пакетную вставку JDBC, batchSize=50 совпадает с шагом последовательностей.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingInsertBenchmark {
+    private static final int BOOKINGS = 10_000;
+
+    @Param({"100"})
+    private int users;
+
+    @Param({"1000"})
+    private int items;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transaction;
+    private BookingRepository bookingRepository;
+    private EntityManager entityManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase database = new BenchmarkDatabase();
+        database.seed(jdbcTemplate -> {
+            BenchmarkDatabase.insert(jdbcTemplate, "INSERT INTO users (user_id, name, email) VALUES (?, ?, ?)",
+                    i -> new Object[]{i, "user" + i, "user" + i + "@shareit.ru"}, users);
+            BenchmarkDatabase.insert(jdbcTemplate,
+                    "INSERT INTO items (item_id, name, description, is_available, owner_id) VALUES (?, ?, ?, ?, ?)",
+                    i -> new Object[]{i, "Дрель " + i, "Аккумуляторная дрель " + i, true, i % users + 1}, items);
+        });
+        context = database.start("spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        bookingRepository = context.getBean(BookingRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOOKINGS)
+    public int insertBookings() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return transaction.execute(status -> {
+            List<Booking> created = new ArrayList<>(BOOKINGS);
+            for (int i = 1; i <= BOOKINGS; i++) {
+                long itemId = i % items + 1;
+                Item item = entityManager.getReference(Item.class, itemId);
+                User booker = entityManager.getReference(User.class, (itemId + i) % users + 1);
+                Booking booking = new Booking();
+                booking.setStart(start.plusMinutes(i));
+                booking.setEnd(start.plusMinutes(i + 30));
+                booking.setItem(item);
+                booking.setBooker(booker);
+                booking.setStatus(Status.WAITING);
+                booking.setPhase(Phase.FUTURE);
+                created.add(booking);
+            }
+            return bookingRepository.saveAll(created).size();
+        });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.enums.Phase;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Создание бронирования с проверкой пересечения интервалов для Вещей без конкуренции. INDEX проверяет
+ * пересечение в BookingIntervalIndex под блокировкой полосы, DATABASE — запросом к bookings
+ * после блокировки строки Вещи (SELECT ... FOR UPDATE). Результат — созданных броней в секунду.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingOverlapBenchmark {
+    private static final String LOCK_ITEM = "SELECT item_id FROM items WHERE item_id = ? FOR UPDATE";
+    private static final String COUNT_OVERLAPS = "SELECT COUNT(*) FROM bookings " +
+            "WHERE item_id = ? AND status IN ('WAITING', 'APPROVED') AND start_date < ? AND end_date > ?";
+
+    @Param({"100"})
+    private int users;
+
+    @Param({"1000"})
+    private int items;
+
+    @Param({"10000"})
+    private int bookings;
+
+    @Param({"INDEX", "DATABASE"})
+    private String check;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transaction;
+    private BookingRepository bookingRepository;
+    private BookingIntervalIndex intervalIndex;
+    private JdbcTemplate jdbcTemplate;
+    private EntityManager entityManager;
+    private final AtomicLong nextItem = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase database = new BenchmarkDatabase();
+        LocalDateTime now = LocalDateTime.now();
+        database.seed(jdbcTemplate -> {
+            BenchmarkDatabase.insert(jdbcTemplate, "INSERT INTO users (user_id, name, email) VALUES (?, ?, ?)",
+                    i -> new Object[]{i, "user" + i, "user" + i + "@shareit.ru"}, users);
+            BenchmarkDatabase.insert(jdbcTemplate,
+                    "INSERT INTO items (item_id, name, description, is_available, owner_id) VALUES (?, ?, ?, ?, ?)",
+                    i -> new Object[]{i, "Дрель " + i, "Аккумуляторная дрель " + i, true, i % users + 1}, items);
+            BenchmarkDatabase.insert(jdbcTemplate, "INSERT INTO bookings (booking_id, start_date, end_date, "
+                    + "item_id, booker_id, status, phase, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)", i -> {
+                LocalDateTime start = now.plusHours(i - bookings / 2L);
+                LocalDateTime end = start.plusHours(2);
+                long itemId = i % items + 1;
+                long bookerId = (itemId + i) % users + 1;
+                return new Object[]{i, Timestamp.valueOf(start), Timestamp.valueOf(end), itemId, bookerId,
+                        Status.APPROVED.name(), Phase.of(start, end, now).name()};
+            }, bookings);
+        });
+        context = database.start();
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        bookingRepository = context.getBean(BookingRepository.class);
+        intervalIndex = context.getBean(BookingIntervalIndex.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        entityManager = context.getBean(EntityManager.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Своя Вещь у каждого потока и следующий свободный час после всех засеянных броней
+     */
+    @State(Scope.Thread)
+    public static class Slots {
+        private long itemId;
+        private LocalDateTime next;
+
+        @Setup(Level.Trial)
+        public void setUp(BookingOverlapBenchmark benchmark) {
+            itemId = benchmark.nextItem.getAndIncrement() % benchmark.items + 1;
+            next = LocalDateTime.now().plusYears(10);
+        }
+    }
+
+    @Benchmark
+    public Long createBooking(Slots slots) {
+        LocalDateTime start = slots.next;
+        slots.next = start.plusHours(1);
+        return transaction.execute(status -> {
+            Booking booking = new Booking();
+            booking.setStart(start);
+            booking.setEnd(start.plusMinutes(30));
+            booking.setItem(entityManager.getReference(Item.class, slots.itemId));
+            booking.setBooker(entityManager.getReference(User.class, slots.itemId % users + 2));
+            booking.setStatus(Status.WAITING);
+            booking.setPhase(Phase.FUTURE);
+            Booking saved = "INDEX".equals(check)
+                    ? intervalIndex.reserve(booking, () -> bookingRepository.save(booking))
+                    : saveCheckedInDatabase(booking, slots.itemId);
+            return saved.getId();
+        });
+    }
+
+    private Booking saveCheckedInDatabase(Booking booking, long itemId) {
+        jdbcTemplate.queryForObject(LOCK_ITEM, Long.class, itemId);
+        Integer overlaps = jdbcTemplate.queryForObject(COUNT_OVERLAPS, Integer.class, itemId,
+                Timestamp.valueOf(booking.getEnd()), Timestamp.valueOf(booking.getStart()));
+        if (overlaps != null && overlaps > 0) {
+            throw new IllegalStateException("Интервал брони пересекается с существующим");
+        }
+        return bookingRepository.save(booking);
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.enums.Phase;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemCommentDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Сущности в памяти для микробенчмарков мапперов и сериализации
+ */
+final class Fixtures {
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 3, 1, 12, 0);
+
+    private Fixtures() {
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("user" + id);
+        user.setEmail("user" + id + "@shareit.ru");
+        return user;
+    }
+
+    static Item item(long id, User owner) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName("Аккумуляторная дрель " + id);
+        item.setDescription("Аккумуляторная дрель с двумя аккумуляторами и набором бит " + id);
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return item;
+    }
+
+    static List<ItemCommentDto> comments(long itemId, int count) {
+        List<ItemCommentDto> comments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            comments.add(new ItemCommentDto(itemId, itemId * 100 + i, "Отличная дрель, заряда хватает надолго " + i,
+                    "user" + (i + 1), NOW.minusDays(i)));
+        }
+        return comments;
+    }
+
+    static Booking booking(long id, Item item, User booker) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setStart(NOW.plusHours(id));
+        booking.setEnd(NOW.plusHours(id + 24));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(Status.APPROVED);
+        booking.setPhase(Phase.FUTURE);
+        booking.setVersion(0L);
+        return booking;
+    }
+
+    static List<Booking> bookings(int count) {
+        List<Booking> bookings = new ArrayList<>(count);
+        User owner = user(1);
+        for (int i = 0; i < count; i++) {
+            bookings.add(booking(i + 1, item(i + 1, owner), user(i + 2)));
+        }
+        return bookings;
+    }
+
+    static List<Item> items(int count) {
+        List<Item> items = new ArrayList<>(count);
+        User owner = user(1);
+        for (int i = 0; i < count; i++) {
+            items.add(item(i + 1, owner));
+        }
+        return items;
+    }
+
+    static List<ItemRequest> requests(int count, int itemsPerRequest) {
+        List<ItemRequest> requests = new ArrayList<>(count);
+        User owner = user(1);
+        for (int i = 0; i < count; i++) {
+            ItemRequest request = new ItemRequest();
+            request.setId((long) i + 1);
+            request.setDescription("Нужна дрель на выходные " + i);
+            request.setRequester(user(i + 2));
+            request.setCreated(NOW.minusHours(i));
+            Set<Item> items = new HashSet<>();
+            for (int j = 0; j < itemsPerRequest; j++) {
+                Item item = item((long) i * itemsPerRequest + j + 1, owner);
+                item.setRequest(request);
+                items.add(item);
+            }
+            request.setItems(items);
+            requests.add(request);
+        }
+        return requests;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочный тест запущенного шлюза: заданное число соединений по кругу отправляют один и тот же GET-запрос,
+ * каждое следующий после ответа на предыдущий. Печатает пропускную способность, долю ошибок и перцентили задержки.
+ * <p>
+ * Запуск: java -cp benchmarks.jar ru.practicum.shareit.benchmark.GatewayLoadTest
+ * [url] [userId] [connections] [seconds]
+ */
+public class GatewayLoadTest {
+    private static final String DEFAULT_URL = "http://localhost:8080/items/1";
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args.length > 0 ? args[0] : DEFAULT_URL);
+        String userId = args.length > 1 ? args[1] : "1";
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+        Duration duration = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 30);
+
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("X-Sharer-User-Id", userId)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        ExecutorService workers = Executors.newFixedThreadPool(connections);
+
+        run(client, request, workers, connections, WARMUP);
+        Result result = run(client, request, workers, connections, duration);
+        workers.shutdownNow();
+
+        List<Long> latencies = result.latencies;
+        Collections.sort(latencies);
+        System.out.printf("connections=%d seconds=%d requests=%d errors=%d rps=%.0f "
+                        + "p50=%.2fms p99=%.2fms max=%.2fms%n",
+                connections, duration.getSeconds(), latencies.size(), result.errors,
+                latencies.size() / (double) duration.getSeconds(),
+                millis(percentile(latencies, 0.50)), millis(percentile(latencies, 0.99)),
+                millis(latencies.isEmpty() ? 0 : latencies.get(latencies.size() - 1)));
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, ExecutorService workers, int connections,
+                              Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Result>> futures = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            futures.add(workers.submit(() -> {
+                Result result = new Result();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 200) {
+                            result.latencies.add(System.nanoTime() - start);
+                        } else {
+                            result.errors++;
+                        }
+                    } catch (Exception exception) {
+                        result.errors++;
+                    }
+                }
+                return result;
+            }));
+        }
+        Result total = new Result();
+        for (Future<Result> future : futures) {
+            Result result = future.get(duration.getSeconds() + 60, TimeUnit.SECONDS);
+            total.latencies.addAll(result.latencies);
+            total.errors += result.errors;
+        }
+        return total;
+    }
+
+    private static long percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size()) - 1));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class Result {
+        private final List<Long> latencies = new ArrayList<>();
+        private long errors;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.benchmark;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemCommentDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Стоимость отображения страницы сущностей в DTO мапперами MapStruct
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"20"})
+    private int pageSize;
+
+    private final BookingMapper bookingMapper = Mappers.getMapper(BookingMapper.class);
+    private final ItemMapper itemMapper = Mappers.getMapper(ItemMapper.class);
+    private final ItemRequestMapper itemRequestMapper = Mappers.getMapper(ItemRequestMapper.class);
+
+    private List<Booking> bookings;
+    private List<Item> items;
+    private List<List<ItemCommentDto>> comments;
+    private List<ItemRequest> requests;
+
+    @Setup
+    public void setUp() {
+        bookings = Fixtures.bookings(pageSize);
+        items = Fixtures.items(pageSize);
+        comments = items.stream().map(item -> Fixtures.comments(item.getId(), 5)).collect(Collectors.toList());
+        requests = Fixtures.requests(pageSize, 3);
+    }
+
+    @Benchmark
+    public void bookingPage(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            blackhole.consume(bookingMapper.mapToBookingDtoResponse(booking));
+        }
+    }
+
+    @Benchmark
+    public void itemPage(Blackhole blackhole) {
+        for (int i = 0; i < items.size(); i++) {
+            ItemDtoResponse item = itemMapper.mapToItemDtoResponse(items.get(i));
+            item.setComments(comments.get(i).stream()
+                    .map(itemMapper::mapToCommentDtoResponse).collect(Collectors.toList()));
+            blackhole.consume(item);
+        }
+    }
+
+    @Benchmark
+    public void requestPage(Blackhole blackhole) {
+        for (ItemRequest request : requests) {
+            blackhole.consume(itemRequestMapper.mapToRequestDtoResponseWithMD(request));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.enums.Phase;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.common.PageCursor;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Чтение страницы бронирований и вещей в DTO через управляемые сущности (ENTITY) и через
+ * запросы-проекции репозиториев (PROJECTION). Скорость выделения памяти показывает запуск
+ * с профилировщиком -prof gc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100"})
+    private int users;
+
+    @Param({"1000"})
+    private int items;
+
+    @Param({"10000"})
+    private int bookings;
+
+    @Param({"ENTITY", "PROJECTION"})
+    private String path;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate readOnly;
+    private EntityManager entityManager;
+    private BookingRepository bookingRepository;
+    private ItemRepository itemRepository;
+    private BookingMapper bookingMapper;
+    private ItemMapper itemMapper;
+    private long nextUser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase database = new BenchmarkDatabase();
+        LocalDateTime now = LocalDateTime.now();
+        database.seed(jdbcTemplate -> {
+            BenchmarkDatabase.insert(jdbcTemplate, "INSERT INTO users (user_id, name, email) VALUES (?, ?, ?)",
+                    i -> new Object[]{i, "user" + i, "user" + i + "@shareit.ru"}, users);
+            BenchmarkDatabase.insert(jdbcTemplate,
+                    "INSERT INTO items (item_id, name, description, is_available, owner_id) VALUES (?, ?, ?, ?, ?)",
+                    i -> new Object[]{i, "Дрель " + i, "Аккумуляторная дрель " + i, true, i % users + 1}, items);
+            BenchmarkDatabase.insert(jdbcTemplate, "INSERT INTO bookings (booking_id, start_date, end_date, "
+                    + "item_id, booker_id, status, phase, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)", i -> {
+                LocalDateTime start = now.plusHours(i - bookings / 2L);
+                LocalDateTime end = start.plusHours(2);
+                long itemId = i % items + 1;
+                long bookerId = (itemId + i) % users + 1;
+                return new Object[]{i, Timestamp.valueOf(start), Timestamp.valueOf(end), itemId, bookerId,
+                        Status.APPROVED.name(), Phase.of(start, end, now).name()};
+            }, bookings);
+        });
+        context = database.start();
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        entityManager = context.getBean(EntityManager.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingMapper = context.getBean(BookingMapper.class);
+        itemMapper = context.getBean(ItemMapper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDtoResponse> bookingPage() {
+        long bookerId = nextUser();
+        return readOnly.execute(status -> "ENTITY".equals(path)
+                ? entityManager.createQuery("SELECT b FROM Booking AS b JOIN FETCH b.item JOIN FETCH b.booker "
+                                + "WHERE b.booker.id = :bookerId ORDER BY b.start DESC, b.id", Booking.class)
+                        .setParameter("bookerId", bookerId)
+                        .setMaxResults(PAGE_SIZE)
+                        .getResultStream()
+                        .map(bookingMapper::mapToBookingDtoResponse)
+                        .collect(Collectors.toList())
+                : bookingRepository.findAllByBookerId(OffsetPageRequest.of(0, PAGE_SIZE), bookerId,
+                                PageCursor.LATEST.getPosition(), PageCursor.LATEST.getId()).stream()
+                        .map(bookingMapper::mapToBookingDtoResponse)
+                        .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<ItemDtoResponse> itemPage() {
+        long ownerId = nextUser();
+        return readOnly.execute(status -> "ENTITY".equals(path)
+                ? entityManager.createQuery("SELECT i FROM Item AS i WHERE i.owner.id = :ownerId ORDER BY i.id",
+                                Item.class)
+                        .setParameter("ownerId", ownerId)
+                        .setMaxResults(PAGE_SIZE)
+                        .getResultStream()
+                        .map(itemMapper::mapToItemDtoResponse)
+                        .collect(Collectors.toList())
+                : itemRepository.findAllByOwnerIdAndIdGreaterThan(OffsetPageRequest.of(0, PAGE_SIZE), ownerId, 0L)
+                        .stream()
+                        .map(itemMapper::mapToItemDtoResponse)
+                        .collect(Collectors.toList()));
+    }
+
+    private long nextUser() {
+        nextUser = nextUser % users + 1;
+        return nextUser;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.item.dto.ItemListDto;
+import ru.practicum.shareit.item.enums.SearchMode;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск Вещей по тексту в каждом режиме shareit.item.search.mode на каталоге заданного размера.
+ * Названия и описания составляются из случайных слов словаря, поэтому каждое слово встречается
+ * примерно у одинаковой доли Вещей.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchBenchmark {
+    private static final int USERS = 100;
+    private static final int PAGE_SIZE = 20;
+    private static final String[] WORDS = {
+            "дрель", "перфоратор", "шуруповёрт", "отвертка", "молоток", "пила", "лобзик", "рубанок",
+            "стамеска", "уровень", "рулетка", "стремянка", "лестница", "тачка", "лопата", "грабли",
+            "палатка", "спальник", "рюкзак", "котелок", "велосипед", "самокат", "лыжи", "коньки",
+            "аккумуляторная", "сетевая", "ударная", "складная", "большая", "маленькая", "новая", "старая",
+            "садовая", "туристическая", "строительная", "электрическая", "ручная", "лёгкая", "прочная", "удобная"
+    };
+    private static final String[] QUERY = {"дрель", "аккумуляторная"};
+
+    @Param({"100000", "1000000"})
+    private int items;
+
+    @Param({"LIKE", "INDEX", "FULL_TEXT"})
+    private SearchMode mode;
+
+    @Param({"1", "2"})
+    private int queryWords;
+
+    private String text;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private int page;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        text = String.join(" ", Arrays.copyOf(QUERY, queryWords));
+        BenchmarkDatabase database = new BenchmarkDatabase();
+        Random random = new Random(items);
+        database.seed(jdbcTemplate -> {
+            BenchmarkDatabase.insert(jdbcTemplate, "INSERT INTO users (user_id, name, email) VALUES (?, ?, ?)",
+                    i -> new Object[]{i, "user" + i, "user" + i + "@shareit.ru"}, USERS);
+            BenchmarkDatabase.insert(jdbcTemplate,
+                    "INSERT INTO items (item_id, name, description, is_available, owner_id) VALUES (?, ?, ?, ?, ?)",
+                    i -> new Object[]{i, words(random, 2), words(random, 6), i % 10 != 0, i % USERS + 1}, items);
+        });
+        context = database.start("shareit.item.search.mode=" + mode);
+        itemService = context.getBean(ItemService.class);
+        ItemSearchIndex searchIndex = context.getBean(ItemSearchIndex.class);
+        while (mode == SearchMode.INDEX && !searchIndex.isReady()) {
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemListDto search() {
+        page = (page + 1) % 5;
+        return itemService.getFoundItems(OffsetPageRequest.of(page * PAGE_SIZE, PAGE_SIZE), text);
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder words = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                words.append(' ');
+            }
+            words.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return words.toString();
+    }
+}
\ No newline at end of file
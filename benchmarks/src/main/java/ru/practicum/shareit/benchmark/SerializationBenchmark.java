@@ -0,0 +1,64 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.dto.ItemListDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Стоимость сериализации страниц ответа в JSON тем же ObjectMapper, что настраивает Spring Boot
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"20"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private BookingListDto bookingList;
+    private ItemListDto itemList;
+
+    @Setup
+    public void setUp() {
+        BookingMapper bookingMapper = Mappers.getMapper(BookingMapper.class);
+        ItemMapper itemMapper = Mappers.getMapper(ItemMapper.class);
+        bookingList = BookingListDto.builder()
+                .bookings(Fixtures.bookings(pageSize).stream()
+                        .map(bookingMapper::mapToBookingDtoResponse).collect(Collectors.toList()))
+                .build();
+        itemList = ItemListDto.builder()
+                .items(Fixtures.items(pageSize).stream()
+                        .map(item -> {
+                            ItemDtoResponse dto = itemMapper.mapToItemDtoResponse(item);
+                            dto.setComments(Fixtures.comments(item.getId(), 5).stream()
+                                    .map(itemMapper::mapToCommentDtoResponse).collect(Collectors.toList()));
+                            return dto;
+                        })
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    @Benchmark
+    public byte[] bookingList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookingList);
+    }
+
+    @Benchmark
+    public byte[] itemList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(itemList);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.booking.enums.Phase;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.item.dto.ItemListDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервисы бронирований и вещей поверх базы H2, заполненной набором данных заданного размера
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100"})
+    private int users;
+
+    @Param({"1000"})
+    private int items;
+
+    @Param({"10000"})
+    private int bookings;
+
+    @Param({"ALL", "PAST", "FUTURE"})
+    private String state;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private ItemService itemService;
+    private long nextUser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase database = new BenchmarkDatabase();
+        LocalDateTime now = LocalDateTime.now();
+        database.seed(jdbcTemplate -> {
+            BenchmarkDatabase.insert(jdbcTemplate, "INSERT INTO users (user_id, name, email) VALUES (?, ?, ?)",
+                    i -> new Object[]{i, "user" + i, "user" + i + "@shareit.ru"}, users);
+            BenchmarkDatabase.insert(jdbcTemplate,
+                    "INSERT INTO items (item_id, name, description, is_available, owner_id) VALUES (?, ?, ?, ?, ?)",
+                    i -> new Object[]{i, "Дрель " + i, "Аккумуляторная дрель " + i, true, i % users + 1}, items);
+            BenchmarkDatabase.insert(jdbcTemplate, "INSERT INTO bookings (booking_id, start_date, end_date, "
+                    + "item_id, booker_id, status, phase, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)", i -> {
+                LocalDateTime start = now.plusHours(i - bookings / 2L);
+                LocalDateTime end = start.plusHours(2);
+                long itemId = i % items + 1;
+                long bookerId = (itemId + i) % users + 1;
+                return new Object[]{i, Timestamp.valueOf(start), Timestamp.valueOf(end), itemId, bookerId,
+                        Status.APPROVED.name(), Phase.of(start, end, now).name()};
+            }, bookings);
+        });
+        context = database.start();
+        bookingService = context.getBean(BookingService.class);
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookingListDto bookingsOfBooker() {
+        return bookingService.getAllBookingsForUser(OffsetPageRequest.of(0, PAGE_SIZE), null, nextUser(), state);
+    }
+
+    @Benchmark
+    public BookingListDto bookingsOfOwner() {
+        return bookingService.getAllBookingsForItemsUser(OffsetPageRequest.of(0, PAGE_SIZE), null, nextUser(), state);
+    }
+
+    @Benchmark
+    public ItemListDto itemsOfOwner() {
+        return itemService.getPersonalItems(OffsetPageRequest.of(0, PAGE_SIZE), null, nextUser());
+    }
+
+    private long nextUser() {
+        nextUser = nextUser % users + 1;
+        return nextUser;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.common.WeightedRadixTrie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск самых популярных продолжений префикса в дереве подсказок. Слова составляются из случайных
+ * слогов, поэтому у коротких префиксов тысячи продолжений, а вес слова распределён как число
+ * бронирований: у большинства слов мало бронирований, у немногих — много.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuggestBenchmark {
+    private static final String[] SYLLABLES = {
+            "да", "дре", "ль", "ка", "ро", "пи", "ла", "то", "ве", "ло", "си", "пед", "ма", "ши", "на",
+            "ко", "ньки", "сан", "ки", "лы", "жи", "па", "лат", "ту", "ри", "ст", "бо", "ры", "шо", "й"
+    };
+    private static final int LIMIT = 10;
+
+    @Param({"10000", "100000"})
+    private int terms;
+
+    @Param({"1", "3"})
+    private int prefixLength;
+
+    private final WeightedRadixTrie trie = new WeightedRadixTrie();
+    private final List<String> prefixes = new ArrayList<>();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(terms);
+        List<String> words = new ArrayList<>(terms);
+        while (trie.size() < terms) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 2 + random.nextInt(4);
+            for (int i = 0; i < syllables; i++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            trie.update(word.toString(), 1, (long) (Math.pow(random.nextDouble(), 4) * 1000));
+            words.add(word.toString());
+        }
+        for (int i = 0; i < 1024; i++) {
+            String word = words.get(random.nextInt(words.size()));
+            prefixes.add(word.substring(0, Math.min(prefixLength, word.length())));
+        }
+    }
+
+    @Benchmark
+    public List<WeightedRadixTrie.Entry> top() {
+        next = (next + 1) & 1023;
+        return trie.top(prefixes.get(next), LIMIT);
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.client.BaseWebClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.WebClientConfig;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Передача ответа сервера через шлюз. Заглушка сервера на Reactor Netty отдаёт страницу вещей
+ * с комментариями, шлюз получает её через тот же пул соединений и коннектор, что и в приложении.
+ * Прежний путь разбирает тело в Object и сериализует его обратно, сквозной идёт через BaseWebClient
+ * и только передаёт буферы тела дальше. Затраты памяти на запрос видны с профилировщиком -prof gc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GatewayRelayBenchmark {
+    private static final String PATH = "/items";
+
+    @Param({"1", "20"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private DisposableServer upstream;
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+    private RelayClient relayClient;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(Map.of("items", items(pageSize)));
+        upstream = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes.get(PATH, (request, response) -> response
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .sendByteArray(Mono.just(body))))
+                .bindNow();
+
+        WebClientConfig config = new WebClientConfig();
+        connectionProvider = config.shareItServerConnectionProvider(10, 1000, Duration.ofSeconds(5),
+                Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofSeconds(30));
+        ClientHttpConnector connector = config.shareItServerConnector(connectionProvider, Duration.ofSeconds(2),
+                false);
+        webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + upstream.port())
+                .clientConnector(connector)
+                .build();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        relayClient = new RelayClient(webClient,
+                new ResponseCache(10_000, Duration.ofMinutes(10), DataSize.ofKilobytes(256),
+                        new StandardEnvironment(), registry),
+                new RequestCoalescer(Duration.ofSeconds(10), registry));
+    }
+
+    @TearDown
+    public void tearDown() {
+        upstream.disposeNow();
+        connectionProvider.dispose();
+    }
+
+    /**
+     * Путь шлюза до сквозной передачи: тело разбирается в Object и сериализуется для ответа клиенту
+     */
+    @Benchmark
+    public byte[] decodeAndEncode() throws IOException {
+        ResponseEntity<Object> response = webClient.get()
+                .uri(PATH)
+                .retrieve()
+                .toEntity(Object.class)
+                .block();
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+
+    /**
+     * Текущий путь шлюза: BaseWebClient отдаёт статус, заголовки и буферы тела как есть
+     */
+    @Benchmark
+    public long relay() {
+        return relayClient.fetch(PATH)
+                .flatMapMany(ResponseEntity::getBody)
+                .map(buffer -> {
+                    int bytes = buffer.readableByteCount();
+                    DataBufferUtils.release(buffer);
+                    return (long) bytes;
+                })
+                .reduce(0L, Long::sum)
+                .block();
+    }
+
+    private static List<Map<String, Object>> items(int count) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            List<Map<String, Object>> comments = new ArrayList<>();
+            for (long commentId = 1; commentId <= 5; commentId++) {
+                Map<String, Object> comment = new LinkedHashMap<>();
+                comment.put("id", id * 10 + commentId);
+                comment.put("text", "Отличная вещь, всё работает, вернул вовремя " + commentId);
+                comment.put("authorName", "user" + commentId);
+                comment.put("created", LocalDateTime.of(2023, 1, 1, 12, 0).plusDays(commentId).toString());
+                comments.add(comment);
+            }
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", id);
+            item.put("name", "Дрель " + id);
+            item.put("description", "Ударная дрель с набором свёрл, модель " + id);
+            item.put("available", true);
+            item.put("requestId", null);
+            item.put("lastBooking", Map.of("id", id * 2, "bookerId", 2));
+            item.put("nextBooking", Map.of("id", id * 2 + 1, "bookerId", 3));
+            item.put("comments", comments);
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * Клиент шлюза с тем же путём обработки GET-запроса, что и у клиентов приложения
+     */
+    private static class RelayClient extends BaseWebClient {
+        RelayClient(WebClient webClient, ResponseCache responseCache, RequestCoalescer requestCoalescer) {
+            super(webClient, Duration.ofSeconds(5), responseCache, requestCoalescer);
+        }
+
+        Mono<ResponseEntity<Flux<DataBuffer>>> fetch(String path) {
+            return get(path);
+        }
+    }
+}
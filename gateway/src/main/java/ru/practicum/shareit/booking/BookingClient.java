@@ -2,14 +2,23 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.client.BaseWebClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.handler.exception.StateException;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -17,47 +26,63 @@ public class BookingClient extends BaseWebClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String url) {
+    public BookingClient(@Value("${shareit-server.url}") String url,
+                         ClientHttpConnector shareItServerConnector,
+                         @Value("${shareit-server.response-timeout.bookings:10s}") Duration responseTimeout,
+                         ResponseCache responseCache,
+                         RequestCoalescer requestCoalescer) {
         super(WebClient.builder()
                 .baseUrl(url + API_PREFIX)
-                .build());
+                .clientConnector(shareItServerConnector)
+                .build(), responseTimeout, responseCache, requestCoalescer);
     }
 
-    public Mono<ResponseEntity<Object>> createBooking(Long bookerId, BookingDto bookingDto) {
-        return post("", bookerId, bookingDto);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createBooking(Long bookerId, BookingDto bookingDto) {
+        // Новое бронирование может стать следующим бронированием Вещи в ответе её владельцу
+        return evictAfter(post("", bookerId, bookingDto), "item:" + bookingDto.getItemId());
     }
 
-    public Mono<ResponseEntity<Object>> approveBooking(Long ownerId, String approved, Long bookingId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> approveBooking(Long ownerId, String approved, Long bookingId) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
-        return patch("/" + bookingId + "?approved={approved}", ownerId, parameters, null);
+        return evictAfter(patch("/" + bookingId + "?approved={approved}", ownerId, parameters, null),
+                "item-view:" + ownerId);
     }
 
-    public Mono<ResponseEntity<Object>> getBookingByIdForOwnerAndBooker(Long bookingId, Long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> approveBookings(Long ownerId, List<BookingDecisionDto> decisions) {
+        return evictAfter(patch("/bulk", ownerId, decisions), "item-view:" + ownerId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookingByIdForOwnerAndBooker(Long bookingId, Long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public Mono<ResponseEntity<Object>> getAllBookingsForUser(Long userId, String state, Integer from,
-                                                              Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllBookingsForUser(Long userId, String state, Integer from,
+                                                                        Integer size, String cursor) {
         validateState(state);
         Map<String, Object> parameters = Map.of(
                 "state", state,
                 "from", from,
                 "size", size
         );
-        return get("?state={state}&&from={from}&&size={size}", userId, parameters);
+        return getPage("?state={state}&&from={from}&&size={size}", userId, parameters, cursor);
     }
 
-    public Mono<ResponseEntity<Object>> getAllBookingsForItemsUser(Long userId, String state, Integer from,
-                                                                   Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllBookingsForItemsUser(Long userId, String state, Integer from,
+                                                                             Integer size, String cursor) {
         validateState(state);
         Map<String, Object> parameters = Map.of(
                 "state", state,
                 "from", from,
                 "size", size
         );
-        return get("/owner?state={state}&&from={from}&&size={size}", userId, parameters);
+        // Не кэшируется: бронирование меняет список владельца, а владелец по запросу бронирования шлюзу не известен
+        return getPage("/owner?state={state}&&from={from}&&size={size}", userId, parameters, cursor);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportBookingsForUser(Long userId) {
+        return getStream("/export", userId, MediaType.APPLICATION_NDJSON);
     }
 
     private void validateState(String state) {
@@ -2,16 +2,24 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.common.Header;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @RestController
 @RequestMapping("/bookings")
@@ -22,40 +30,56 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public Mono<ResponseEntity<Object>> createBooking(@RequestHeader(Header.userIdHeader) @Min(1) Long bookerId,
-                                                      @Valid @RequestBody BookingDto bookingDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createBooking(@RequestHeader(Header.userIdHeader) @Min(1) Long bookerId,
+                                                                @Valid @RequestBody BookingDto bookingDto) {
         return bookingClient.createBooking(bookerId, bookingDto);
     }
 
     @PatchMapping("{bookingId}")
-    public Mono<ResponseEntity<Object>> approveBooking(@RequestHeader(Header.userIdHeader) @Min(1) Long ownerId,
-                                                       @RequestParam String approved,
-                                                       @PathVariable @Min(1) Long bookingId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> approveBooking(@RequestHeader(Header.userIdHeader) @Min(1) Long ownerId,
+                                                                 @RequestParam String approved,
+                                                                 @PathVariable @Min(1) Long bookingId) {
         return bookingClient.approveBooking(ownerId, approved, bookingId);
     }
 
+    @PatchMapping("bulk")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> approveBookings(
+            @RequestHeader(Header.userIdHeader) @Min(1) Long ownerId,
+            @RequestBody @NotEmpty @Size(max = 200) List<@Valid BookingDecisionDto> decisions) {
+        return bookingClient.approveBookings(ownerId, decisions);
+    }
+
     @GetMapping("{bookingId}")
-    public Mono<ResponseEntity<Object>> getBookingByIdForOwnerAndBooker(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBookingByIdForOwnerAndBooker(
             @PathVariable @Min(1) Long bookingId,
             @RequestHeader(Header.userIdHeader) @Min(1) Long userId) {
         return bookingClient.getBookingByIdForOwnerAndBooker(bookingId, userId);
     }
 
     @GetMapping
-    public Mono<ResponseEntity<Object>> getAllBookingsForUser(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllBookingsForUser(
             @RequestHeader(Header.userIdHeader) @Min(1) Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
-            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size) {
-        return bookingClient.getAllBookingsForUser(userId, state, from, size);
+            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size,
+            @RequestParam(value = "cursor", required = false) @Pattern(regexp = "[A-Za-z0-9_-]+") String cursor) {
+        return bookingClient.getAllBookingsForUser(userId, state, from, size, cursor);
     }
 
     @GetMapping("owner")
-    public Mono<ResponseEntity<Object>> getAllBookingsForItemsUser(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllBookingsForItemsUser(
             @RequestHeader(Header.userIdHeader) @Min(1) Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
-            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size) {
-        return bookingClient.getAllBookingsForItemsUser(userId, state, from, size);
+            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size,
+            @RequestParam(value = "cursor", required = false) @Pattern(regexp = "[A-Za-z0-9_-]+") String cursor) {
+        return bookingClient.getAllBookingsForItemsUser(userId, state, from, size, cursor);
+    }
+
+    @GetMapping(value = "export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportBookingsForUser(
+            @RequestHeader(Header.userIdHeader) @Min(1) Long userId) {
+        // Части тела отдаются клиенту по мере получения от сервера, с учётом скорости чтения клиента
+        return bookingClient.exportBookingsForUser(userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+@Data
+@Builder
+public class BookingDecisionDto {
+    @NotNull(message = "Поле bookingId обязательно")
+    @Min(value = 1, message = "Некорректный bookingId")
+    private Long bookingId;
+    @NotNull(message = "Поле approved обязательно")
+    private Boolean approved;
+}
\ No newline at end of file
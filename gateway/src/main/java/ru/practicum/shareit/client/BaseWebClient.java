@@ -1,119 +1,331 @@
 package ru.practicum.shareit.client;
 
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
 import ru.practicum.shareit.common.Header;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 public class BaseWebClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "te", "trailer", "upgrade", "proxy-authenticate", "proxy-authorization");
+    private static final String POOL_PENDING_LIMIT_EXCEPTION = "PoolAcquirePendingLimitException";
+
     final WebClient webClient;
+    private final Duration responseTimeout;
+    private final ResponseCache responseCache;
+    private final RequestCoalescer requestCoalescer;
 
-    public BaseWebClient(WebClient webClient) {
+    public BaseWebClient(WebClient webClient, Duration responseTimeout, ResponseCache responseCache,
+                         RequestCoalescer requestCoalescer) {
         this.webClient = webClient;
+        this.responseTimeout = responseTimeout;
+        this.responseCache = responseCache;
+        this.requestCoalescer = requestCoalescer;
     }
 
-    protected Mono<ResponseEntity<Object>> get(String path) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path) {
         return get(path, null, null);
     }
 
-    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
+    /**
+     * GET-запрос страницы списка. Курсор, если он передан, добавляется к параметрам запроса,
+     * а курсор следующей страницы возвращается сервером в заголовке X-Next-Cursor.
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> getPage(String path, Long userId,
+                                                             Map<String, Object> parameters,
+                                                             @Nullable String cursor) {
+        if (cursor == null) {
+            return get(path, userId, parameters);
+        }
+        Map<String, Object> pageParameters = new HashMap<>(parameters);
+        pageParameters.put("cursor", cursor);
+        return get(path + "&cursor={cursor}", userId, pageParameters);
+    }
+
+    /**
+     * GET-запрос через кэш ответов. Свежая запись отдаётся без обращения к серверу, устаревшая
+     * перепроверяется запросом с If-None-Match. Ответ 200 передаётся клиенту потоком и по ходу
+     * копируется, если не больше предельного размера записи; полностью переданный ответ сохраняется с тегами tags.
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> getCached(CacheRoute route, Set<String> tags, String path,
+                                                               Long userId,
+                                                               @Nullable Map<String, Object> parameters) {
+        String key = ResponseCache.key(route, userId, path + (parameters == null ? "" : new TreeMap<>(parameters)));
+        ResponseCache.Entry cached = responseCache.get(key);
+        if (cached != null && responseCache.isFresh(cached)) {
+            return Mono.just(cached.getResponse().toResponse());
+        }
+        String eTag = cached == null ? null : cached.getResponse().getETag();
+        return requestCoalescer.execute(coalescingKey(path, userId, parameters) + "|" + eTag, () -> {
+            long version = responseCache.version();
+            return relay(spec(path, parameters)
+                    .headers(defaultHeaders(userId).andThen(httpHeaders -> {
+                        if (eTag != null) {
+                            httpHeaders.setIfNoneMatch(eTag);
+                        }
+                    })))
+                    .flatMap(response -> {
+                        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+                            return response.getBody()
+                                    .doOnNext(DataBufferUtils::release)
+                                    .then(Mono.fromSupplier(() -> {
+                                        responseCache.revalidated(key, route, cached);
+                                        return cached.getResponse().toResponse();
+                                    }));
+                        }
+                        if (response.getStatusCode() != HttpStatus.OK) {
+                            return Mono.just(response);
+                        }
+                        return Mono.just(ResponseEntity
+                                .status(response.getStatusCode())
+                                .headers(response.getHeaders())
+                                .body(copyToCache(response, key, route, tags, version)));
+                    });
+        });
+    }
+
+    /**
+     * Страница списка через кэш ответов; курсор входит в ключ записи вместе с остальными параметрами
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> getCachedPage(CacheRoute route, Set<String> tags, String path,
+                                                                   Long userId, Map<String, Object> parameters,
+                                                                   @Nullable String cursor) {
+        if (cursor == null) {
+            return getCached(route, tags, path, userId, parameters);
+        }
+        Map<String, Object> pageParameters = new HashMap<>(parameters);
+        pageParameters.put("cursor", cursor);
+        return getCached(route, tags, path + "&cursor={cursor}", userId, pageParameters);
+    }
+
+    /**
+     * Выполняет изменяющий запрос и по его завершении, успешном или нет, удаляет из кэша записи с тегами tags
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> evictAfter(Mono<ResponseEntity<Flux<DataBuffer>>> mutation,
+                                                                String... tags) {
+        return mutation.doFinally(signal -> responseCache.evict(tags));
+    }
+
+    /**
+     * GET-запрос, тело ответа которого не собирается в памяти, а отдаётся потоком DataBuffer
+     * по мере получения от сервера. Ошибочный статус сервера, как и в остальных запросах,
+     * возвращается в виде ResponseStatusException до начала передачи тела.
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> getStream(String path, Long userId, MediaType mediaType) {
+        return relay(webClient
+                .get()
+                .uri(path)
+                .headers(defaultHeaders(userId).andThen(httpHeaders -> httpHeaders.setAccept(List.of(mediaType)))));
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
 
-    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected Mono<ResponseEntity<Object>> delete(String path) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId,
-                                                                @Nullable Map<String, Object> parameters, @Nullable T body) {
+    private <T> Mono<ResponseEntity<Flux<DataBuffer>>> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                                          @Nullable Map<String, Object> parameters,
+                                                                          @Nullable T body) {
         if (method.equals(HttpMethod.POST) || method.equals(HttpMethod.PATCH)) {
             if (parameters == null & body != null) {
                 Mono<Object> monoBody = Mono.just(body);
-                return webClient
+                return relay(webClient
                         .method(method)
                         .uri(path)
                         .headers(defaultHeaders(userId))
-                        .body(monoBody, Object.class)
-                        .retrieve()
-                        .onStatus(HttpStatus::isError, response -> response.bodyToMono(String.class)
-                                .flatMap(error -> Mono.error(new ResponseStatusException(response.statusCode(), error))))
-                        .toEntity(Object.class)
-                        .timeout(Duration.ofMinutes(1));
+                        .body(monoBody, Object.class));
             } else if (parameters != null) {
-                return webClient
+                return relay(webClient
                         .method(method)
                         .uri(path, parameters)
-                        .headers(defaultHeaders(userId))
-                        .retrieve()
-                        .onStatus(HttpStatus::isError, response -> response.bodyToMono(String.class)
-                                .flatMap(error -> Mono.error(new ResponseStatusException(response.statusCode(), error))))
-                        .toEntity(Object.class)
-                        .timeout(Duration.ofMinutes(1));
+                        .headers(defaultHeaders(userId)));
             }
         }
+        if (method.equals(HttpMethod.GET)) {
+            return getCoalesced(path, userId, parameters);
+        }
         if (parameters == null) {
-            return webClient
+            return relay(webClient
                     .method(method)
                     .uri(path)
-                    .headers(defaultHeaders(userId))
-                    .retrieve()
-                    .onStatus(HttpStatus::isError, response -> response.bodyToMono(String.class)
-                            .flatMap(error -> Mono.error(new ResponseStatusException(response.statusCode(), error))))
-                    .toEntity(Object.class)
-                    .timeout(Duration.ofMinutes(1));
+                    .headers(defaultHeaders(userId)));
         } else {
-            return webClient
+            return relay(webClient
                     .method(method)
                     .uri(path, parameters)
-                    .headers(defaultHeaders(userId))
-                    .retrieve()
-                    .onStatus(HttpStatus::isError, response -> response.bodyToMono(String.class)
-                            .flatMap(error -> Mono.error(new ResponseStatusException(response.statusCode(), error))))
-                    .toEntity(Object.class)
-                    .timeout(Duration.ofMinutes(1));
+                    .headers(defaultHeaders(userId)));
         }
     }
 
+    /**
+     * GET-запрос, одновременные копии которого с тем же URI и пользователем получают один общий ответ сервера.
+     * Без присоединившихся запросов ответ передаётся потоком.
+     */
+    private Mono<ResponseEntity<Flux<DataBuffer>>> getCoalesced(String path, Long userId,
+                                                                @Nullable Map<String, Object> parameters) {
+        return requestCoalescer.execute(coalescingKey(path, userId, parameters), () ->
+                relay(spec(path, parameters).headers(defaultHeaders(userId))));
+    }
+
+    /**
+     * Отправляет запрос и передаёт клиенту статус, заголовки и тело ответа сервера без разбора JSON:
+     * тело остаётся потоком DataBuffer, который записывается в ответ шлюза как есть.
+     * Если сервер молчит дольше таймаута ответа маршрута, клиент получает 504,
+     * если свободное соединение в пуле не появилось вовремя - 503.
+     */
+    private Mono<ResponseEntity<Flux<DataBuffer>>> relay(WebClient.RequestHeadersSpec<?> request) {
+        return withResponseTimeout(request)
+                .retrieve()
+                .onStatus(HttpStatus::isError, BaseWebClient::upstreamError)
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> ResponseEntity
+                        .status(response.getStatusCode())
+                        .headers(relayedHeaders(response.getHeaders()))
+                        .body(response.getBody()))
+                .onErrorMap(WebClientRequestException.class, BaseWebClient::toResponseStatus);
+    }
+
+    /**
+     * Передаёт тело ответа дальше без изменений, сохраняя копию. Запись попадает в кэш только после
+     * того, как тело передано полностью; тело больше maximum-entry-size не копируется и не кэшируется.
+     */
+    private Flux<DataBuffer> copyToCache(ResponseEntity<Flux<DataBuffer>> response, String key, CacheRoute route,
+                                         Set<String> tags, long version) {
+        return Flux.defer(() -> {
+            ByteArrayOutputStream copy = new ByteArrayOutputStream();
+            AtomicBoolean tooLarge = new AtomicBoolean();
+            return response.getBody()
+                    .doOnNext(buffer -> {
+                        if (tooLarge.get()) {
+                            return;
+                        }
+                        if (copy.size() + buffer.readableByteCount() > responseCache.getMaximumEntryBytes()) {
+                            tooLarge.set(true);
+                            return;
+                        }
+                        ByteBuffer bytes = buffer.asByteBuffer();
+                        byte[] chunk = new byte[bytes.remaining()];
+                        bytes.get(chunk);
+                        copy.write(chunk, 0, chunk.length);
+                    })
+                    .doOnComplete(() -> {
+                        if (!tooLarge.get()) {
+                            responseCache.put(key, route, tags, version, new BufferedResponse(
+                                    response.getStatusCode(), response.getHeaders(), copy.toByteArray()));
+                        }
+                    });
+        });
+    }
+
+    private WebClient.RequestHeadersSpec<?> spec(String path, @Nullable Map<String, Object> parameters) {
+        return parameters == null ? webClient.get().uri(path) : webClient.get().uri(path, parameters);
+    }
+
+    /**
+     * Ключ запроса для объединения: клиент, URI с параметрами и пользователь. Клиент входит в ключ,
+     * так как у каждого клиента свой префикс пути на сервере.
+     */
+    private String coalescingKey(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return getClass().getSimpleName() + " GET " + path + (parameters == null ? "" : new TreeMap<>(parameters))
+                + "|" + userId;
+    }
+
+    private WebClient.RequestHeadersSpec<?> withResponseTimeout(WebClient.RequestHeadersSpec<?> request) {
+        return request.httpRequest(httpRequest -> httpRequest.<HttpClientRequest>getNativeRequest()
+                .responseTimeout(responseTimeout));
+    }
+
+    private static <T> Mono<T> upstreamError(ClientResponse response) {
+        return response.bodyToMono(String.class)
+                .flatMap(error -> Mono.error(new ResponseStatusException(response.statusCode(), error)));
+    }
+
+    /**
+     * Исключения пула Reactor Netty лежат во внутреннем затенённом пакете reactor-pool, поэтому они
+     * распознаются без импорта: ожидание соединения — по суперклассу TimeoutException,
+     * переполнение очереди ожидающих — по имени класса
+     */
+    private static Throwable toResponseStatus(WebClientRequestException exception) {
+        Throwable cause = exception.getCause();
+        if (cause instanceof ReadTimeoutException) {
+            return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Сервер не ответил вовремя", exception);
+        }
+        if (cause instanceof TimeoutException
+                || cause != null && POOL_PENDING_LIMIT_EXCEPTION.equals(cause.getClass().getSimpleName())) {
+            return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Нет свободных соединений с сервером",
+                    exception);
+        }
+        return exception;
+    }
+
+    private HttpHeaders relayedHeaders(HttpHeaders upstream) {
+        HttpHeaders headers = new HttpHeaders();
+        upstream.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+
     private Consumer<HttpHeaders> defaultHeaders(Long userId) {
         return httpHeaders -> {
             httpHeaders.setContentType(MediaType.APPLICATION_JSON);
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Ответ сервера, тело которого прочитано целиком. В отличие от потока DataBuffer его можно
+ * отдать нескольким клиентам: каждый получает собственный буфер поверх общего массива байт.
+ */
+public final class BufferedResponse {
+    private final HttpStatus status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+
+    public BufferedResponse(HttpStatus status, HttpHeaders headers, byte[] body) {
+        this.status = status;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    @Nullable
+    public String getETag() {
+        return headers.getETag();
+    }
+
+    public ResponseEntity<Flux<DataBuffer>> toResponse() {
+        return ResponseEntity
+                .status(status)
+                .headers(headers)
+                .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)));
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+
+/**
+ * Маршруты, ответы которых хранятся в ResponseCache, и время их свежести по умолчанию.
+ * TTL переопределяется свойством shareit-gateway.cache.ttl.{property}.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum CacheRoute {
+    ITEM("item", Duration.ofSeconds(30)),
+    USER("user", Duration.ofSeconds(60)),
+    USERS("users", Duration.ofSeconds(60)),
+    ITEM_REQUEST("item-request", Duration.ofSeconds(30)),
+    OTHER_REQUESTS("other-requests", Duration.ofSeconds(30));
+
+    private final String property;
+    private final Duration defaultTtl;
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Объединяет одновременные одинаковые безопасные запросы к серверу (single flight). Первый запрос
+ * с данным ключом уходит на сервер, остальные, пришедшие до получения статуса и заголовков ответа,
+ * присоединяются к нему. Затем ключ удаляется, и следующий запрос снова идёт на сервер.
+ * <p>
+ * Тело читается в память только если к запросу кто-то присоединился: одиночный запрос получает
+ * ответ сервера потоком, как и без объединения. Если первый запрос отменён до получения ответа,
+ * присоединившиеся отправляют свои запросы сами.
+ * <p>
+ * Присоединившийся запрос ждёт общий ответ не дольше max-wait и затем получает 504,
+ * число присоединившихся запросов публикуется счётчиком gateway.requests.coalesced.
+ */
+@Component
+public class RequestCoalescer {
+    private final Map<String, Flight> pending = new ConcurrentHashMap<>();
+    private final Duration maxWait;
+    private final Counter coalesced;
+
+    @Autowired
+    public RequestCoalescer(@Value("${shareit-gateway.coalescing.max-wait:10s}") Duration maxWait,
+                            MeterRegistry registry) {
+        this.maxWait = maxWait;
+        this.coalesced = Counter.builder("gateway.requests.coalesced")
+                .description("Запросы, получившие ответ уже выполняющегося одинакового запроса")
+                .register(registry);
+    }
+
+    /**
+     * Присоединяется к выполняющемуся запросу с тем же ключом или выполняет upstream
+     *
+     * @param key      метод, URI и пользователь запроса
+     * @param upstream запрос к серверу
+     * @return Mono<ResponseEntity<Flux<DataBuffer>>>
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> execute(String key,
+                                                          Supplier<Mono<ResponseEntity<Flux<DataBuffer>>>> upstream) {
+        return Mono.defer(() -> {
+            Flight flight = new Flight();
+            Flight inFlight = pending.putIfAbsent(key, flight);
+            if (inFlight == null) {
+                return lead(key, flight, upstream);
+            }
+            if (inFlight.join()) {
+                coalesced.increment();
+                return follow(inFlight, upstream);
+            }
+            // Ответ на запрос с этим ключом уже пришёл, но ключ ещё не удалён
+            return upstream.get();
+        });
+    }
+
+    private Mono<ResponseEntity<Flux<DataBuffer>>> lead(String key, Flight flight,
+                                                        Supplier<Mono<ResponseEntity<Flux<DataBuffer>>>> upstream) {
+        return Mono.defer(upstream)
+                .flatMap(response -> {
+                    boolean joined = flight.close();
+                    pending.remove(key, flight);
+                    return joined ? share(flight, response) : Mono.just(response);
+                })
+                .doOnError(flight.result::tryEmitError)
+                .doFinally(signal -> {
+                    // Без ответа (отмена) присоединившиеся получают пустой сигнал и идут на сервер сами
+                    flight.close();
+                    pending.remove(key, flight);
+                    flight.result.tryEmitEmpty();
+                });
+    }
+
+    /**
+     * Читает тело ответа целиком и отдаёт его присоединившимся запросам и первому запросу
+     */
+    private Mono<ResponseEntity<Flux<DataBuffer>>> share(Flight flight, ResponseEntity<Flux<DataBuffer>> response) {
+        Flux<DataBuffer> body = response.getBody() == null ? Flux.empty() : response.getBody();
+        return DataBufferUtils.join(body)
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .defaultIfEmpty(new byte[0])
+                .map(bytes -> new BufferedResponse(response.getStatusCode(), response.getHeaders(), bytes))
+                .doOnNext(flight.result::tryEmitValue)
+                .map(BufferedResponse::toResponse);
+    }
+
+    private Mono<ResponseEntity<Flux<DataBuffer>>> follow(Flight flight,
+                                                          Supplier<Mono<ResponseEntity<Flux<DataBuffer>>>> upstream) {
+        return flight.result.asMono()
+                .timeout(maxWait)
+                .onErrorMap(TimeoutException.class, exception -> new ResponseStatusException(
+                        HttpStatus.GATEWAY_TIMEOUT, "Сервер не ответил вовремя", exception))
+                .map(BufferedResponse::toResponse)
+                .switchIfEmpty(Mono.defer(upstream));
+    }
+
+    /**
+     * Выполняющийся запрос. К нему можно присоединиться, пока от сервера не пришёл ответ;
+     * присоединившиеся получают прочитанный ответ, ошибку или пустой сигнал при отмене первого запроса.
+     */
+    private static final class Flight {
+        private final Sinks.One<BufferedResponse> result = Sinks.one();
+        private boolean open = true;
+        private int followers;
+
+        synchronized boolean join() {
+            if (open) {
+                followers++;
+            }
+            return open;
+        }
+
+        /**
+         * Закрывает запрос для присоединения
+         *
+         * @return true, если кто-то успел присоединиться
+         */
+        synchronized boolean close() {
+            open = false;
+            return followers > 0;
+        }
+    }
+}
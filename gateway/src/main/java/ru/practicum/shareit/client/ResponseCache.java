@@ -0,0 +1,167 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограниченный по размеру кэш ответов сервера на GET-запросы шлюза. Ключ - маршрут, пользователь
+ * из X-Sharer-User-Id и URI с параметрами. Запись свежа в течение TTL маршрута, после чего
+ * перепроверяется на сервере по ETag: ответ 304 продлевает её без передачи тела.
+ * <p>
+ * Каждая запись помечена тегами затронутых ресурсов. Изменяющие запросы, прошедшие через этот шлюз,
+ * удаляют записи по тегам; изменения, о которых шлюз не знает, видны не позже чем через TTL.
+ */
+@Component
+public class ResponseCache {
+    private final Cache<String, Entry> entries;
+    private final Map<String, Set<String>> keysByTag = new ConcurrentHashMap<>();
+    private final Map<CacheRoute, Duration> ttls = new EnumMap<>(CacheRoute.class);
+    /**
+     * Увеличивается при каждом удалении по тегу. Ответ, запрошенный до удаления, в кэш не попадает,
+     * чтобы не вернуть туда данные, которые удаление должно было сбросить.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+    private final long maximumEntryBytes;
+
+    @Autowired
+    public ResponseCache(@Value("${shareit-gateway.cache.maximum-size:10000}") long maximumSize,
+                         @Value("${shareit-gateway.cache.retention:10m}") Duration retention,
+                         @Value("${shareit-gateway.cache.maximum-entry-size:256KB}") DataSize maximumEntrySize,
+                         Environment environment,
+                         MeterRegistry registry) {
+        for (CacheRoute route : CacheRoute.values()) {
+            ttls.put(route, environment.getProperty("shareit-gateway.cache.ttl." + route.getProperty(),
+                    Duration.class, route.getDefaultTtl()));
+        }
+        maximumEntryBytes = maximumEntrySize.toBytes();
+        entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(retention)
+                .executor(Runnable::run)
+                .<String, Entry>removalListener((key, entry, cause) -> {
+                    if (cause != RemovalCause.REPLACED && entry != null) {
+                        untag(key, entry.tags);
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, entries, "gatewayResponses");
+    }
+
+    /**
+     * Ключ записи по маршруту, пользователю и URI запроса
+     */
+    public static String key(CacheRoute route, @Nullable Long userId, String uri) {
+        return route + "|" + userId + "|" + uri;
+    }
+
+    @Nullable
+    public Entry get(String key) {
+        return entries.getIfPresent(key);
+    }
+
+    /**
+     * Предельный размер тела ответа, который сохраняется в кэше; тела больше передаются клиенту без копии
+     */
+    public long getMaximumEntryBytes() {
+        return maximumEntryBytes;
+    }
+
+    /**
+     * Номер последнего удаления по тегу; запоминается до отправки запроса на сервер
+     */
+    public long version() {
+        return invalidations.get();
+    }
+
+    /**
+     * Сохраняет успешный ответ сервера, если с момента version записи по тегам не удалялись
+     */
+    public void put(String key, CacheRoute route, Set<String> tags, long version, BufferedResponse response) {
+        if (invalidations.get() != version) {
+            return;
+        }
+        for (String tag : tags) {
+            keysByTag.computeIfAbsent(tag, ignored -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        entries.put(key, new Entry(response, tags, freshUntil(route)));
+        if (invalidations.get() != version) {
+            entries.invalidate(key);
+        }
+    }
+
+    /**
+     * Продлевает запись после ответа 304 на перепроверку по ETag
+     */
+    public void revalidated(String key, CacheRoute route, Entry entry) {
+        entries.asMap().replace(key, entry, new Entry(entry.response, entry.tags, freshUntil(route)));
+    }
+
+    /**
+     * Удаляет все записи, помеченные хотя бы одним из тегов
+     */
+    public void evict(String... tags) {
+        invalidations.incrementAndGet();
+        for (String tag : tags) {
+            Set<String> keys = keysByTag.remove(tag);
+            if (keys != null) {
+                entries.invalidateAll(keys);
+            }
+        }
+    }
+
+    public boolean isFresh(Entry entry) {
+        return System.currentTimeMillis() < entry.freshUntil;
+    }
+
+    private long freshUntil(CacheRoute route) {
+        return System.currentTimeMillis() + ttls.get(route).toMillis();
+    }
+
+    private void untag(String key, Set<String> tags) {
+        if (entries.asMap().containsKey(key)) {
+            return;
+        }
+        for (String tag : tags) {
+            keysByTag.computeIfPresent(tag, (ignored, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    /**
+     * Сохранённый ответ сервера с тегами и моментом, до которого он считается свежим
+     */
+    public static final class Entry {
+        private final BufferedResponse response;
+        private final Set<String> tags;
+        private final long freshUntil;
+
+        private Entry(BufferedResponse response, Set<String> tags, long freshUntil) {
+            this.response = response;
+            this.tags = tags;
+            this.freshUntil = freshUntil;
+        }
+
+        public BufferedResponse getResponse() {
+            return response;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class WebClientConfig {
+    /**
+     * Общий пул соединений шлюза с сервером для всех клиентов. Метрики пула
+     * публикуются в Micrometer как reactor.netty.connection.provider.* и доступны через actuator.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItServerConnectionProvider(
+            @Value("${shareit-server.pool.max-connections:200}") int maxConnections,
+            @Value("${shareit-server.pool.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+            @Value("${shareit-server.pool.pending-acquire-timeout:5s}") Duration pendingAcquireTimeout,
+            @Value("${shareit-server.pool.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${shareit-server.pool.max-life-time:5m}") Duration maxLifeTime,
+            @Value("${shareit-server.pool.evict-interval:30s}") Duration evictInterval) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInterval)
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * HTTP-клиент поверх общего пула. В режиме h2c запросы к серверу мультиплексируются
+     * по HTTP/2 без TLS (prior knowledge) через несколько соединений вместо соединения на запрос.
+     */
+    @Bean
+    public ClientHttpConnector shareItServerConnector(
+            ConnectionProvider shareItServerConnectionProvider,
+            @Value("${shareit-server.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-server.h2c:false}") boolean h2c) {
+        HttpClient httpClient = HttpClient.create(shareItServerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .protocol(h2c ? HttpProtocol.H2C : HttpProtocol.HTTP11);
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
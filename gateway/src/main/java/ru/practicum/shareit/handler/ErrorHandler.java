@@ -3,9 +3,9 @@ package ru.practicum.shareit.handler;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.shareit.handler.exception.StateException;
 import ru.practicum.shareit.handler.response.StateErrorResponse;
@@ -24,8 +24,8 @@ public class ErrorHandler {
                 .body(exception.getMessage());
     }
 
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    private ResponseEntity<String> handleException(MethodArgumentNotValidException exception) {
+    @ExceptionHandler(WebExchangeBindException.class)
+    private ResponseEntity<String> handleException(WebExchangeBindException exception) {
         log.debug("Получен статус 400 BAD_REQUEST {}", exception.getMessage(), exception);
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
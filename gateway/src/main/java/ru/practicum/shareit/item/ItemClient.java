@@ -1,47 +1,70 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseWebClient;
+import ru.practicum.shareit.client.CacheRoute;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.*;
 
+import java.time.Duration;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ItemClient extends BaseWebClient {
     private static final String API_PREFIX = "/items";
 
 
-    public ItemClient(@Value("${shareit-server.url}") String url) {
+    public ItemClient(@Value("${shareit-server.url}") String url,
+                      ClientHttpConnector shareItServerConnector,
+                      @Value("${shareit-server.response-timeout.items:5s}") Duration responseTimeout,
+                      ResponseCache responseCache,
+                      RequestCoalescer requestCoalescer) {
         super(WebClient.builder()
                 .baseUrl(url + API_PREFIX)
-                .build());
+                .clientConnector(shareItServerConnector)
+                .build(), responseTimeout, responseCache, requestCoalescer);
     }
 
-    public Mono<ResponseEntity<Object>> createItem(Long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItem(Long userId, ItemDto itemDto) {
+        if (itemDto.getRequestId() == null) {
+            return post("", userId, itemDto);
+        }
+        return evictAfter(post("", userId, itemDto), "requests");
     }
 
-    public Mono<ResponseEntity<Object>> updateItem(Long userId, ItemDtoUpdate itemDtoUpdate, Long itemId) {
-        return patch("/" + itemId, userId, itemDtoUpdate);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateItem(Long userId, ItemDtoUpdate itemDtoUpdate, Long itemId) {
+        // Вещи встроены в ответы на запросы, поэтому вместе с Вещью сбрасываются и ленты запросов
+        return evictAfter(patch("/" + itemId, userId, itemDtoUpdate), "item:" + itemId, "requests");
     }
 
-    public Mono<ResponseEntity<Object>> getItemByItemId(Long userId, Long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemByItemId(Long userId, Long itemId, Integer commentsFrom,
+                                                                  Integer commentsSize) {
+        Map<String, Object> parameters = Map.of(
+                "commentsFrom", commentsFrom,
+                "commentsSize", commentsSize
+        );
+        return getCached(CacheRoute.ITEM, Set.of("items", "item:" + itemId, "item-view:" + userId),
+                "/" + itemId + "?commentsFrom={commentsFrom}&commentsSize={commentsSize}", userId, parameters);
     }
 
-    public Mono<ResponseEntity<Object>> getPersonalItems(Long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getPersonalItems(Long userId, Integer from, Integer size, String cursor) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("?from={from}&size={size}", userId, parameters);
+        return getPage("?from={from}&size={size}", userId, parameters, cursor);
     }
 
-    public Mono<ResponseEntity<Object>> getFoundItems(Long userId, String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getFoundItems(Long userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -50,7 +73,15 @@ public class ItemClient extends BaseWebClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public Mono<ResponseEntity<Object>> addComment(Long itemId, Long userId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getSuggestions(Long userId, String prefix, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+        return get("/suggest?prefix={prefix}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addComment(Long itemId, Long userId, CommentDto commentDto) {
+        return evictAfter(post("/" + itemId + "/comment", userId, commentDto), "item:" + itemId);
     }
 }
\ No newline at end of file
@@ -2,9 +2,11 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ru.practicum.shareit.common.Header;
 import ru.practicum.shareit.item.dto.*;
@@ -12,6 +14,9 @@ import ru.practicum.shareit.item.dto.*;
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
 
 @RestController
 @RequestMapping("/items")
@@ -21,34 +26,38 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public Mono<ResponseEntity<Object>> createItem(@RequestHeader(Header.userIdHeader) @Min(1) Long userId,
-                                                   @Valid @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItem(@RequestHeader(Header.userIdHeader) @Min(1) Long userId,
+                                                             @Valid @RequestBody ItemDto itemDto) {
         return itemClient.createItem(userId, itemDto);
     }
 
     @PatchMapping("{itemId}")
-    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader(Header.userIdHeader) @Min(1) Long userId,
-                                                   @RequestBody ItemDtoUpdate itemDtoUpdate,
-                                                   @PathVariable @Min(1) Long itemId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateItem(@RequestHeader(Header.userIdHeader) @Min(1) Long userId,
+                                                             @RequestBody ItemDtoUpdate itemDtoUpdate,
+                                                             @PathVariable @Min(1) Long itemId) {
         return itemClient.updateItem(userId, itemDtoUpdate, itemId);
     }
 
     @GetMapping("{itemId}")
-    public Mono<ResponseEntity<Object>> getItemByItemId(@RequestHeader(Header.userIdHeader) @Min(1) Long userId,
-                                                        @PathVariable @Min(1) Long itemId) {
-        return itemClient.getItemByItemId(userId, itemId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemByItemId(
+            @RequestHeader(Header.userIdHeader) @Min(1) Long userId,
+            @PathVariable @Min(1) Long itemId,
+            @RequestParam(value = "commentsFrom", defaultValue = "0") @Min(0) Integer commentsFrom,
+            @RequestParam(value = "commentsSize", defaultValue = "10") @Min(1) @Max(50) Integer commentsSize) {
+        return itemClient.getItemByItemId(userId, itemId, commentsFrom, commentsSize);
     }
 
     @GetMapping
-    public Mono<ResponseEntity<Object>> getPersonalItems(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getPersonalItems(
             @RequestHeader(Header.userIdHeader) @Min(1) Long userId,
             @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
-            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size) {
-        return itemClient.getPersonalItems(userId, from, size);
+            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size,
+            @RequestParam(value = "cursor", required = false) @Pattern(regexp = "[A-Za-z0-9_-]+") String cursor) {
+        return itemClient.getPersonalItems(userId, from, size, cursor);
     }
 
     @GetMapping("search")
-    public Mono<ResponseEntity<Object>> getFoundItems(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getFoundItems(
             @RequestHeader(Header.userIdHeader) @Min(1) Long userId,
             @RequestParam String text,
             @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
@@ -56,10 +65,18 @@ public class ItemController {
         return itemClient.getFoundItems(userId, text, from, size);
     }
 
+    @GetMapping("suggest")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getSuggestions(
+            @RequestHeader(Header.userIdHeader) @Min(1) Long userId,
+            @RequestParam @NotBlank @Size(max = 100) String prefix,
+            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size) {
+        return itemClient.getSuggestions(userId, prefix, size);
+    }
+
     @PostMapping("{itemId}/comment")
-    public Mono<ResponseEntity<Object>> addComment(@PathVariable @Min(1) Long itemId,
-                                                   @RequestHeader(Header.userIdHeader) @Min(1) Long userId,
-                                                   @Valid @RequestBody CommentDto commentDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addComment(@PathVariable @Min(1) Long itemId,
+                                                             @RequestHeader(Header.userIdHeader) @Min(1) Long userId,
+                                                             @Valid @RequestBody CommentDto commentDto) {
         return itemClient.addComment(itemId, userId, commentDto);
     }
 
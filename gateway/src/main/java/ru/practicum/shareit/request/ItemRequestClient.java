@@ -1,47 +1,61 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseWebClient;
+import ru.practicum.shareit.client.CacheRoute;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.time.Duration;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ItemRequestClient extends BaseWebClient {
     private static final String API_PREFIX = "/requests";
 
 
-    public ItemRequestClient(@Value("${shareit-server.url}") String url) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String url,
+                             ClientHttpConnector shareItServerConnector,
+                             @Value("${shareit-server.response-timeout.requests:5s}") Duration responseTimeout,
+                             ResponseCache responseCache,
+                             RequestCoalescer requestCoalescer) {
         super(WebClient.builder()
                 .baseUrl(url + API_PREFIX)
-                .build());
+                .clientConnector(shareItServerConnector)
+                .build(), responseTimeout, responseCache, requestCoalescer);
     }
 
-    public Mono<ResponseEntity<Object>> createRequest(Long requesterId, ItemRequestDto itemRequestDto) {
-        return post("", requesterId, itemRequestDto);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createRequest(Long requesterId, ItemRequestDto itemRequestDto) {
+        return evictAfter(post("", requesterId, itemRequestDto), "requests");
     }
 
-    public Mono<ResponseEntity<Object>> getPrivateRequests(Long requesterId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getPrivateRequests(Long requesterId, Integer from, Integer size, String cursor) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("?from={from}&&size={size}", requesterId, parameters);
+        return getPage("?from={from}&&size={size}", requesterId, parameters, cursor);
     }
 
-    public Mono<ResponseEntity<Object>> getOtherRequests(Long requesterId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOtherRequests(Long requesterId, Integer from, Integer size, String cursor) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all?from={from}&&size={size}", requesterId, parameters);
+        return getCachedPage(CacheRoute.OTHER_REQUESTS, Set.of("requests"), "/all?from={from}&&size={size}",
+                requesterId, parameters, cursor);
     }
 
-    public Mono<ResponseEntity<Object>> getItemRequest(Long userId, Long requestId) {
-        return get("/" + userId, requestId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemRequest(Long requestId, Long userId) {
+        return getCached(CacheRoute.ITEM_REQUEST, Set.of("requests"), "/" + requestId, userId, null);
     }
 }
\ No newline at end of file
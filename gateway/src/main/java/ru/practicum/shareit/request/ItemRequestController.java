@@ -2,9 +2,11 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ru.practicum.shareit.common.Header;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -12,6 +14,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
 
 @RestController
 @RequestMapping("/requests")
@@ -21,29 +24,31 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public Mono<ResponseEntity<Object>> createRequest(@RequestHeader(Header.userIdHeader) @Min(1) Long requesterId,
-                                                      @RequestBody @Valid ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createRequest(@RequestHeader(Header.userIdHeader) @Min(1) Long requesterId,
+                                                                @RequestBody @Valid ItemRequestDto itemRequestDto) {
         return itemRequestClient.createRequest(requesterId, itemRequestDto);
     }
 
     @GetMapping
-    public Mono<ResponseEntity<Object>> getPrivateRequests(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getPrivateRequests(
             @RequestHeader(Header.userIdHeader) @Min(1) Long requesterId,
             @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
-            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size) {
-        return itemRequestClient.getPrivateRequests(requesterId, from, size);
+            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size,
+            @RequestParam(value = "cursor", required = false) @Pattern(regexp = "[A-Za-z0-9_-]+") String cursor) {
+        return itemRequestClient.getPrivateRequests(requesterId, from, size, cursor);
     }
 
     @GetMapping("all")
-    public Mono<ResponseEntity<Object>> getOtherRequests(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOtherRequests(
             @RequestHeader(Header.userIdHeader) @Min(1) Long requesterId,
             @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
-            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size) {
-        return itemRequestClient.getOtherRequests(requesterId, from, size);
+            @RequestParam(value = "size", defaultValue = "10") @Min(1) @Max(20) Integer size,
+            @RequestParam(value = "cursor", required = false) @Pattern(regexp = "[A-Za-z0-9_-]+") String cursor) {
+        return itemRequestClient.getOtherRequests(requesterId, from, size, cursor);
     }
 
     @GetMapping("{requestId}")
-    public Mono<ResponseEntity<Object>> getItemRequest(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemRequest(
             @RequestHeader(Header.userIdHeader) @Min(1) Long userId,
             @PathVariable @Min(1) Long requestId) {
         return itemRequestClient.getItemRequest(requestId, userId);
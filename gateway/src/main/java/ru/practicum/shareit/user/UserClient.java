@@ -1,42 +1,58 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseWebClient;
+import ru.practicum.shareit.client.CacheRoute;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoUpdate;
 
+import java.time.Duration;
+import java.util.Set;
+
 @Service
 public class UserClient extends BaseWebClient {
     private static final String API_PREFIX = "/users";
 
 
-    public UserClient(@Value("${shareit-server.url}") String url) {
+    public UserClient(@Value("${shareit-server.url}") String url,
+                      ClientHttpConnector shareItServerConnector,
+                      @Value("${shareit-server.response-timeout.users:5s}") Duration responseTimeout,
+                      ResponseCache responseCache,
+                      RequestCoalescer requestCoalescer) {
         super(WebClient.builder()
                 .baseUrl(url + API_PREFIX)
-                .build());
+                .clientConnector(shareItServerConnector)
+                .build(), responseTimeout, responseCache, requestCoalescer);
     }
 
-    public Mono<ResponseEntity<Object>> createUser(UserDto userDto) {
-        return post("", userDto);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createUser(UserDto userDto) {
+        return evictAfter(post("", userDto), "users");
     }
 
-    public Mono<ResponseEntity<Object>> updateUser(UserDtoUpdate userDtoUpdate, Long userId) {
-        return patch("/" + userId, userDtoUpdate);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateUser(UserDtoUpdate userDtoUpdate, Long userId) {
+        // Имя пользователя входит в комментарии карточек Вещей, поэтому сбрасываются и они
+        return evictAfter(patch("/" + userId, userDtoUpdate), "user:" + userId, "users", "items");
     }
 
-    public Mono<ResponseEntity<Object>> getUserById(Long userId) {
-        return get("/" + userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUserById(Long userId) {
+        return getCached(CacheRoute.USER, Set.of("user:" + userId), "/" + userId, null, null);
     }
 
-    public Mono<ResponseEntity<Object>> deleteUser(Long userId) {
-        return delete("/" + userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteUser(Long userId) {
+        // Вместе с пользователем удаляются его Вещи и запросы, поэтому сбрасываются все карточки Вещей и ленты запросов
+        return evictAfter(delete("/" + userId), "user:" + userId, "users", "items", "requests");
     }
 
-    public Mono<ResponseEntity<Object>> getUsers() {
-        return get("");
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUsers() {
+        return getCached(CacheRoute.USERS, Set.of("users"), "", null, null);
     }
 }
\ No newline at end of file
@@ -1,16 +1,27 @@
 package ru.practicum.shareit.booking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionListDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.common.PageCursor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 @Controller
 @RequestMapping("/bookings")
@@ -18,6 +29,7 @@ import ru.practicum.shareit.booking.dto.BookingListDto;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
     private final String userIdHeader = "X-Sharer-User-Id";
 
     @PostMapping
@@ -37,6 +49,14 @@ public class BookingController {
                 .body(bookingService.approveBooking(ownerId, bookingId, approved));
     }
 
+    @PatchMapping("bulk")
+    public ResponseEntity<BookingDecisionListDto> approveBookings(@RequestHeader(userIdHeader) Long ownerId,
+                                                                  @RequestBody List<BookingDecisionDto> decisions) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(bookingService.approveBookings(ownerId, decisions));
+    }
+
     @GetMapping("{bookingId}")
     public ResponseEntity<BookingDtoResponse> getBookingByIdForOwnerAndBooker(
             @PathVariable Long bookingId,
@@ -51,10 +71,15 @@ public class BookingController {
             @RequestHeader(userIdHeader) Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(value = "from", defaultValue = "0") Integer from,
-            @RequestParam(value = "size", defaultValue = "10") Integer size) {
+            @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        BookingListDto bookingList = bookingService.getAllBookingsForUser(
+                OffsetPageRequest.of(pageCursor == null ? from : 0, size), pageCursor, userId, state);
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(bookingService.getAllBookingsForUser(PageRequest.of(from / size, size), userId, state));
+                .headers(PageCursor.headers(bookingList.getNextCursor()))
+                .body(bookingList);
     }
 
     @GetMapping("owner")
@@ -62,9 +87,32 @@ public class BookingController {
             @RequestHeader(userIdHeader) Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(value = "from", defaultValue = "0") Integer from,
-            @RequestParam(value = "size", defaultValue = "10") Integer size) {
+            @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        BookingListDto bookingList = bookingService.getAllBookingsForItemsUser(
+                OffsetPageRequest.of(pageCursor == null ? from : 0, size), pageCursor, userId, state);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .headers(PageCursor.headers(bookingList.getNextCursor()))
+                .body(bookingList);
+    }
+
+    @GetMapping(value = "export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookingsForUser(@RequestHeader(userIdHeader) Long userId) {
+        bookingService.checkUserExists(userId);
+        ObjectWriter writer = objectMapper.writerFor(BookingDtoResponse.class);
+        StreamingResponseBody body = outputStream -> bookingService.exportBookingsForUser(userId, booking -> {
+            try {
+                outputStream.write(writer.writeValueAsBytes(booking));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(bookingService.getAllBookingsForItemsUser(PageRequest.of(from / size, size), userId, state));
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 }
\ No newline at end of file
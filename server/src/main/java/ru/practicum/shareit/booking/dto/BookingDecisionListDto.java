@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Builder
+@Getter
+public class BookingDecisionListDto {
+    @JsonValue
+    private List<BookingDecisionResultDto> results;
+}
\ No newline at end of file
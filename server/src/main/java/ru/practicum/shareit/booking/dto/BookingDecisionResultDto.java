@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Результат решения по одной брони: code — HTTP-статус, который вернул бы одиночный запрос,
+ * booking — бронь после изменения статуса, error — причина отказа
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingDecisionResultDto {
+    private Long bookingId;
+    private Integer code;
+    private BookingDtoResponse booking;
+    private String error;
+}
\ No newline at end of file
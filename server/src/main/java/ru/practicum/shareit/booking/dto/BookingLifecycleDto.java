@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class BookingLifecycleDto {
+    private Long id;
+    private Long itemId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Status status;
+}
\ No newline at end of file
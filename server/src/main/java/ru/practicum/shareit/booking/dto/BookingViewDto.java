@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Столбцы бронирования, нужные для BookingDtoResponse и проверки доступа, без загрузки сущностей
+ */
+@Data
+@AllArgsConstructor
+public class BookingViewDto {
+    private Long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Long itemId;
+    private String itemName;
+    private Long itemOwnerId;
+    private Long bookerId;
+    private String bookerName;
+    private Status status;
+}
\ No newline at end of file
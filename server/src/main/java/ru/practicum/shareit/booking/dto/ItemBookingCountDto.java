@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemBookingCountDto {
+    private Long itemId;
+    private Long count;
+}
\ No newline at end of file
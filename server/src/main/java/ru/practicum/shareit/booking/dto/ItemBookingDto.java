@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ItemBookingDto {
+    private Long itemId;
+    private Long id;
+    private Long bookerId;
+    private LocalDateTime start;
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.enums;
+
+import java.time.LocalDateTime;
+
+/**
+ * Фаза жизненного цикла бронирования относительно текущего момента.
+ * Хранится в таблице bookings и обновляется планировщиком в моменты начала и окончания брони.
+ */
+public enum Phase {
+    FUTURE, CURRENT, PAST;
+
+    public static Phase of(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (now.isBefore(start)) {
+            return FUTURE;
+        }
+        return now.isBefore(end) ? CURRENT : PAST;
+    }
+}
\ No newline at end of file
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.booking.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingViewDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
@@ -14,5 +16,11 @@ public interface BookingMapper {
 
     BookingDtoResponse mapToBookingDtoResponse(Booking booking);
 
+    @Mapping(source = "itemId", target = "item.id")
+    @Mapping(source = "itemName", target = "item.name")
+    @Mapping(source = "bookerId", target = "booker.id")
+    @Mapping(source = "bookerName", target = "booker.name")
+    BookingDtoResponse mapToBookingDtoResponse(BookingViewDto bookingViewDto);
+
     ItemShortDto mapToItemShortDtoFromItem(Item item);
 }
\ No newline at end of file
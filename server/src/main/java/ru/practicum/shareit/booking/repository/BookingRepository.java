@@ -1,46 +1,325 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.dto.BookingLifecycleDto;
+import ru.practicum.shareit.booking.dto.BookingViewDto;
+import ru.practicum.shareit.booking.dto.ItemBookingCountDto;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
+import ru.practicum.shareit.booking.enums.Phase;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.model.Booking;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerIdOrderByStartDesc(Pageable pageable, Long bookerId);
+    int EXPORT_FETCH_SIZE = 500;
+
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long bookingId);
+
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    List<Booking> findAllById(Iterable<Long> bookingIds);
+
+    /**
+     * Возвращает брони с Вещами и авторами и блокирует их строки до конца транзакции.
+     * Строки блокируются в порядке идентификаторов, чтобы встречные пакеты не ждали друг друга по кругу
+     *
+     * @param bookingIds идентификаторы Броней
+     * @return коллекцию Booking
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking AS b JOIN FETCH b.item JOIN FETCH b.booker " +
+            "WHERE b.id IN :bookingIds ORDER BY b.id")
+    List<Booking> findAllForUpdateByIdIn(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingViewDto(" +
+            "b.id, b.start, b.end, i.id, i.name, i.owner.id, u.id, u.name, b.status) " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u " +
+            "WHERE b.id = :bookingId")
+    Optional<BookingViewDto> findViewById(@Param("bookingId") Long bookingId);
+
+    /*
+     * Выборки бронирований постранично по ключу (start DESC, id): страница начинается строго после
+     * позиции cursorStart/cursorId, поэтому стоимость запроса не зависит от номера страницы.
+     * Для первой страницы передаётся PageCursor.LATEST.
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingViewDto(" +
+            "b.id, b.start, b.end, i.id, i.name, i.owner.id, u.id, u.name, b.status) " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u " +
+            "WHERE b.booker.id = :bookerId " +
+            "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id > :cursorId)) " +
+            "ORDER BY b.start DESC, b.id")
+    List<BookingViewDto> findAllByBookerId(Pageable pageable, @Param("bookerId") Long bookerId,
+                                           @Param("cursorStart") LocalDateTime cursorStart,
+                                           @Param("cursorId") Long cursorId);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingViewDto(" +
+            "b.id, b.start, b.end, i.id, i.name, i.owner.id, u.id, u.name, b.status) " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u " +
+            "WHERE b.booker.id = :bookerId AND b.status = :status " +
+            "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id > :cursorId)) " +
+            "ORDER BY b.start DESC, b.id")
+    List<BookingViewDto> findAllByBookerIdAndStatus(Pageable pageable, @Param("bookerId") Long bookerId,
+                                                    @Param("status") Status status,
+                                                    @Param("cursorStart") LocalDateTime cursorStart,
+                                                    @Param("cursorId") Long cursorId);
 
-    List<Booking> findAllByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-            Pageable pageable, Long bookerId, LocalDateTime start, LocalDateTime end);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingViewDto(" +
+            "b.id, b.start, b.end, i.id, i.name, i.owner.id, u.id, u.name, b.status) " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u " +
+            "WHERE b.booker.id = :bookerId AND b.phase = :phase " +
+            "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id > :cursorId)) " +
+            "ORDER BY b.start DESC, b.id")
+    List<BookingViewDto> findAllByBookerIdAndPhase(Pageable pageable, @Param("bookerId") Long bookerId,
+                                                   @Param("phase") Phase phase,
+                                                   @Param("cursorStart") LocalDateTime cursorStart,
+                                                   @Param("cursorId") Long cursorId);
 
-    List<Booking> findAllByBookerIdAndEndIsBeforeOrderByStartDesc(Pageable pageable, Long bookerId, LocalDateTime end);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingViewDto(" +
+            "b.id, b.start, b.end, i.id, i.name, i.owner.id, u.id, u.name, b.status) " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u " +
+            "WHERE i.owner.id = :ownerId " +
+            "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id > :cursorId)) " +
+            "ORDER BY b.start DESC, b.id")
+    List<BookingViewDto> findAllByItemOwnerId(Pageable pageable, @Param("ownerId") Long ownerId,
+                                              @Param("cursorStart") LocalDateTime cursorStart,
+                                              @Param("cursorId") Long cursorId);
 
-    List<Booking> findAllByBookerIdAndStartIsAfterOrderByStartDesc(
-            Pageable pageable, Long bookerId, LocalDateTime start);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingViewDto(" +
+            "b.id, b.start, b.end, i.id, i.name, i.owner.id, u.id, u.name, b.status) " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u " +
+            "WHERE i.owner.id = :ownerId AND b.status = :status " +
+            "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id > :cursorId)) " +
+            "ORDER BY b.start DESC, b.id")
+    List<BookingViewDto> findAllByItemOwnerIdAndStatus(Pageable pageable, @Param("ownerId") Long ownerId,
+                                                       @Param("status") Status status,
+                                                       @Param("cursorStart") LocalDateTime cursorStart,
+                                                       @Param("cursorId") Long cursorId);
 
-    List<Booking> findAllByBookerIdAndStatusIsOrderByStartDesc(Pageable pageable, Long bookerId, Status status);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingViewDto(" +
+            "b.id, b.start, b.end, i.id, i.name, i.owner.id, u.id, u.name, b.status) " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u " +
+            "WHERE i.owner.id = :ownerId AND b.phase = :phase " +
+            "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id > :cursorId)) " +
+            "ORDER BY b.start DESC, b.id")
+    List<BookingViewDto> findAllByItemOwnerIdAndPhase(Pageable pageable, @Param("ownerId") Long ownerId,
+                                                      @Param("phase") Phase phase,
+                                                      @Param("cursorStart") LocalDateTime cursorStart,
+                                                      @Param("cursorId") Long cursorId);
 
-    List<Booking> findAllByItemIdInOrderByStartDesc(Pageable pageable, Collection<Long> itemId);
+    /**
+     * Возвращает все бронирования Пользователя потоком, который читается из базы курсором
+     * порциями по EXPORT_FETCH_SIZE строк. Поток нужно закрыть, и читать его можно только
+     * внутри транзакции.
+     *
+     * @param bookerId идентификатор Пользователя
+     * @return поток BookingViewDto в порядке (start DESC, id)
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingViewDto(" +
+            "b.id, b.start, b.end, i.id, i.name, i.owner.id, u.id, u.name, b.status) " +
+            "FROM Booking AS b JOIN b.item AS i JOIN b.booker AS u " +
+            "WHERE u.id = :bookerId " +
+            "ORDER BY b.start DESC, b.id")
+    Stream<BookingViewDto> streamAllByBookerId(@Param("bookerId") Long bookerId);
 
-    List<Booking> findAllByItemIdInAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-            Pageable pageable, Collection<Long> itemId, LocalDateTime start, LocalDateTime end);
+    /**
+     * Возвращает последнее и следующее бронирование с заданным статусом для каждой Вещи из коллекции
+     * одним запросом. Последнее — начавшееся до now с наибольшей датой окончания,
+     * следующее — ближайшее начинающееся после now.
+     *
+     * @param itemIds идентификаторы Вещей
+     * @param now     момент времени, относительно которого выбираются бронирования
+     * @param status  статус бронирования
+     * @return коллекцию ItemBookingDto, упорядоченную по идентификатору брони
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.dto.ItemBookingDto(b.item.id, b.id, b.booker.id, b.start) " +
+            "FROM Booking AS b " +
+            "WHERE b.item.id IN :itemIds AND b.status = :status " +
+            "AND ((b.start < :now AND b.end = (SELECT MAX(l.end) FROM Booking AS l " +
+            "WHERE l.item.id = b.item.id AND l.status = :status AND l.start < :now)) " +
+            "OR (b.start > :now AND b.start = (SELECT MIN(n.start) FROM Booking AS n " +
+            "WHERE n.item.id = b.item.id AND n.status = :status AND n.start > :now))) " +
+            "ORDER BY b.id")
+    List<ItemBookingDto> findLastAndNextBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                                         @Param("now") LocalDateTime now,
+                                                         @Param("status") Status status);
 
-    List<Booking> findAllByItemIdInAndEndIsBeforeOrderByStartDesc(
-            Pageable pageable, Collection<Long> itemId, LocalDateTime end);
+    /**
+     * Переводит бронь из статуса expected в status одним запросом, если Вещь принадлежит ownerId
+     *
+     * @param bookingId идентификатор Брони
+     * @param ownerId   идентификатор владельца Вещи
+     * @param expected  текущий статус брони
+     * @param status    новый статус брони
+     * @return количество изменённых строк: 1, если переход выполнен, иначе 0
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking AS b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id = :bookingId AND b.status = :expected " +
+            "AND b.item.id IN (SELECT i.id FROM Item AS i WHERE i.owner.id = :ownerId)")
+    int updateStatusByIdAndItemOwnerId(@Param("bookingId") Long bookingId,
+                                       @Param("ownerId") Long ownerId,
+                                       @Param("expected") Status expected,
+                                       @Param("status") Status status);
 
-    List<Booking> findAllByItemIdInAndStartIsAfterOrderByStartDesc(
-            Pageable pageable, Collection<Long> itemId, LocalDateTime start);
+    /**
+     * Переводит брони из статуса expected в status одним запросом, если их Вещи принадлежат ownerId
+     *
+     * @param bookingIds идентификаторы Броней
+     * @param ownerId    идентификатор владельца Вещей
+     * @param expected   текущий статус броней
+     * @param status     новый статус броней
+     * @return количество изменённых строк
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking AS b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id IN :bookingIds AND b.status = :expected " +
+            "AND b.item.id IN (SELECT i.id FROM Item AS i WHERE i.owner.id = :ownerId)")
+    int updateStatusByIdInAndItemOwnerId(@Param("bookingIds") Collection<Long> bookingIds,
+                                         @Param("ownerId") Long ownerId,
+                                         @Param("expected") Status expected,
+                                         @Param("status") Status status);
 
-    List<Booking> findAllByItemIdInAndStatusIsOrderByStartDesc(
-            Pageable pageable, Collection<Long> itemId, Status status);
+    /**
+     * Возвращает интервалы бронирований Вещи с заданными статусами, заканчивающиеся после now
+     *
+     * @param itemId   идентификатор Вещи
+     * @param statuses статусы бронирований
+     * @param now      момент времени
+     * @return коллекцию BookingIntervalDto
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingIntervalDto(b.id, b.start, b.end) " +
+            "FROM Booking AS b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.end > :now")
+    List<BookingIntervalDto> findIntervalsByItemId(@Param("itemId") Long itemId,
+                                                   @Param("statuses") Collection<Status> statuses,
+                                                   @Param("now") LocalDateTime now);
 
-    Optional<Booking> findFirstByItemIdAndStartBeforeAndStatusOrderByEndDesc(Long itemId, LocalDateTime end, Status status);
+    /**
+     * Возвращает бронирования, заканчивающиеся после now, для планирования переходов фаз
+     *
+     * @param now момент времени
+     * @return коллекцию BookingLifecycleDto
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingLifecycleDto(b.id, b.item.id, b.start, b.end, b.status) " +
+            "FROM Booking AS b " +
+            "WHERE b.end > :now")
+    List<BookingLifecycleDto> findLifecycleByEndAfter(@Param("now") LocalDateTime now);
 
-    Optional<Booking> findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(Long itemId, LocalDateTime start, Status status);
+    /**
+     * Устанавливает фазу броням из коллекции одним запросом
+     *
+     * @param bookingIds идентификаторы Броней
+     * @param phase      фаза
+     * @return количество изменённых строк
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking AS b SET b.phase = :phase, b.version = b.version + 1 " +
+            "WHERE b.id IN :bookingIds AND (b.phase IS NULL OR b.phase <> :phase)")
+    int updatePhaseByIdIn(@Param("bookingIds") Collection<Long> bookingIds, @Param("phase") Phase phase);
+
+    /**
+     * Устанавливает фазу броням, ещё не начавшимся к моменту now
+     *
+     * @param now   момент времени
+     * @param phase фаза FUTURE
+     * @return количество изменённых строк
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking AS b SET b.phase = :phase, b.version = b.version + 1 " +
+            "WHERE b.start > :now AND (b.phase IS NULL OR b.phase <> :phase)")
+    int updatePhaseByStartAfter(@Param("now") LocalDateTime now, @Param("phase") Phase phase);
+
+    /**
+     * Устанавливает фазу броням, закончившимся к моменту now
+     *
+     * @param now   момент времени
+     * @param phase фаза PAST
+     * @return количество изменённых строк
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking AS b SET b.phase = :phase, b.version = b.version + 1 " +
+            "WHERE b.end <= :now AND (b.phase IS NULL OR b.phase <> :phase)")
+    int updatePhaseByEndBefore(@Param("now") LocalDateTime now, @Param("phase") Phase phase);
+
+    /**
+     * Устанавливает фазу броням, начавшимся и ещё не закончившимся к моменту now
+     *
+     * @param now   момент времени
+     * @param phase фаза CURRENT
+     * @return количество изменённых строк
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking AS b SET b.phase = :phase, b.version = b.version + 1 " +
+            "WHERE b.start <= :now AND b.end > :now AND (b.phase IS NULL OR b.phase <> :phase)")
+    int updatePhaseByStartBeforeAndEndAfter(@Param("now") LocalDateTime now, @Param("phase") Phase phase);
+
+    /**
+     * Отменяет брони из коллекции, которые всё ещё ожидают подтверждения и начались не позже cutoff
+     *
+     * @param bookingIds идентификаторы Броней
+     * @param cutoff     крайний момент начала брони
+     * @param waiting    статус WAITING
+     * @param canceled   статус CANCELED
+     * @return количество изменённых строк
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking AS b SET b.status = :canceled, b.version = b.version + 1 " +
+            "WHERE b.id IN :bookingIds AND b.status = :waiting AND b.start <= :cutoff")
+    int cancelWaitingByIdInStartedBefore(@Param("bookingIds") Collection<Long> bookingIds,
+                                         @Param("cutoff") LocalDateTime cutoff,
+                                         @Param("waiting") Status waiting,
+                                         @Param("canceled") Status canceled);
+
+    /**
+     * Отменяет все брони, которые всё ещё ожидают подтверждения и начались не позже cutoff
+     *
+     * @param cutoff   крайний момент начала брони
+     * @param waiting  статус WAITING
+     * @param canceled статус CANCELED
+     * @return количество отменённых броней
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking AS b SET b.status = :canceled, b.version = b.version + 1 " +
+            "WHERE b.status = :waiting AND b.start <= :cutoff")
+    int cancelWaitingStartedBefore(@Param("cutoff") LocalDateTime cutoff,
+                                   @Param("waiting") Status waiting,
+                                   @Param("canceled") Status canceled);
+
+    /**
+     * Возвращает идентификаторы броней из коллекции, находящихся в статусе status
+     *
+     * @param bookingIds идентификаторы Броней
+     * @param status     статус
+     * @return коллекцию идентификаторов
+     */
+    @Query("SELECT b.id FROM Booking AS b WHERE b.id IN :bookingIds AND b.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("bookingIds") Collection<Long> bookingIds,
+                                      @Param("status") Status status);
 
     Boolean existsBookingByItemIdAndBookerIdAndStatusAndEndIsBefore(
             Long itemId, Long bookerId, Status status, LocalDateTime end);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.ItemBookingCountDto(b.item.id, COUNT(b)) " +
+            "FROM Booking AS b GROUP BY b.item.id")
+    List<ItemBookingCountDto> countAllGroupByItemId();
 }
\ No newline at end of file
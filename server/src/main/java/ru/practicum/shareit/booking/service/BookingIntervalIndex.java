@@ -0,0 +1,247 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Индекс занятых интервалов [start, end) бронирований со статусом WAITING или APPROVED по каждой Вещи.
+ * Интервалы Вещи загружаются из базы при первом обращении, дальше поддерживаются при создании
+ * и отклонении бронирований. Проверка пересечения и сохранение брони выполняются под блокировкой
+ * полосы, выбранной по идентификатору Вещи, поэтому конкурирующие запросы к одной Вещи
+ * выполняются последовательно, а к разным Вещам — параллельно.
+ * <p>
+ * Закончившиеся интервалы удаляются при обращении к Вещи и периодически для всех Вещей; Вещь без
+ * активных интервалов удаляется из индекса и при следующем обращении загружается заново.
+ */
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class BookingIntervalIndex {
+    private static final int STRIPES = 64;
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+    private static final Comparator<BookingIntervalDto> BY_START = Comparator
+            .comparing(BookingIntervalDto::getStart)
+            .thenComparing(BookingIntervalDto::getId);
+
+    private final BookingRepository bookings;
+    private final Clock clock;
+    private final ConcurrentMap<Long, ItemIntervals> intervals = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = createLocks();
+
+    /**
+     * Сохраняет бронь, если её интервал не пересекается с активными бронированиями Вещи
+     *
+     * @param booking бронь со связанной Вещью
+     * @param save    сохранение брони, возвращает бронь с идентификатором
+     * @return сохранённую бронь
+     */
+    public Booking reserve(Booking booking, Supplier<Booking> save) {
+        Long itemId = booking.getItem().getId();
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            ItemIntervals itemIntervals = intervals.computeIfAbsent(itemId, this::load);
+            itemIntervals.prune(LocalDateTime.now(clock));
+            if (itemIntervals.overlaps(booking.getStart(), booking.getEnd())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        String.format("Вещь с id=%s уже забронирована на период с %s по %s",
+                                itemId, booking.getStart(), booking.getEnd()));
+            }
+            Booking saved = save.get();
+            BookingIntervalDto interval = new BookingIntervalDto(saved.getId(), saved.getStart(), saved.getEnd());
+            itemIntervals.add(interval);
+            afterRollback(() -> remove(itemId, interval));
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Освобождает интервал брони после фиксации транзакции
+     *
+     * @param booking бронь, переставшая занимать Вещь
+     */
+    public void release(Booking booking) {
+        release(booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd());
+    }
+
+    /**
+     * Освобождает интервал брони после фиксации транзакции
+     *
+     * @param itemId    идентификатор Вещи
+     * @param bookingId идентификатор Брони
+     * @param start     начало брони
+     * @param end       окончание брони
+     */
+    public void release(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        BookingIntervalDto interval = new BookingIntervalDto(bookingId, start, end);
+        afterCommit(() -> remove(itemId, interval));
+    }
+
+    /**
+     * Удаляет закончившиеся интервалы всех Вещей и Вещи, у которых активных интервалов не осталось
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking.interval-index.evict-millis:60000}")
+    public void evictExpired() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        for (Long itemId : intervals.keySet()) {
+            ReentrantLock lock = lockFor(itemId);
+            lock.lock();
+            try {
+                intervals.computeIfPresent(itemId, (id, itemIntervals) -> itemIntervals.prune(now) ? null : itemIntervals);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Загружены ли интервалы Вещи в индекс
+     */
+    boolean contains(Long itemId) {
+        return intervals.containsKey(itemId);
+    }
+
+    private void remove(Long itemId, BookingIntervalDto interval) {
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            intervals.computeIfPresent(itemId, (id, itemIntervals) -> {
+                itemIntervals.remove(interval);
+                return itemIntervals.prune(LocalDateTime.now(clock)) ? null : itemIntervals;
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ItemIntervals load(Long itemId) {
+        ItemIntervals itemIntervals = new ItemIntervals();
+        bookings.findIntervalsByItemId(itemId, ACTIVE_STATUSES, LocalDateTime.now(clock)).forEach(itemIntervals::add);
+        return itemIntervals;
+    }
+
+    private ReentrantLock lockFor(Long itemId) {
+        return locks[Math.floorMod(itemId.hashCode(), STRIPES)];
+    }
+
+    private static ReentrantLock[] createLocks() {
+        ReentrantLock[] locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    private static void afterRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Интервалы одной Вещи, упорядоченные по началу. Хранит наибольшую длительность,
+     * чтобы поиск пересечений просматривал только интервалы, начинающиеся не раньше start - maxDuration.
+     * Удаление идёт по идентификатору брони: время, прочитанное из базы, может быть округлено
+     * относительно времени, с которым интервал был добавлен при создании брони.
+     */
+    private static class ItemIntervals {
+        private final NavigableSet<BookingIntervalDto> byStart = new TreeSet<>(BY_START);
+        private final Map<Long, BookingIntervalDto> byId = new HashMap<>();
+        private Duration maxDuration = Duration.ZERO;
+
+        void add(BookingIntervalDto interval) {
+            BookingIntervalDto previous = byId.put(interval.getId(), interval);
+            if (previous != null) {
+                byStart.remove(previous);
+            }
+            byStart.add(interval);
+            Duration duration = Duration.between(interval.getStart(), interval.getEnd());
+            if (duration.compareTo(maxDuration) > 0) {
+                maxDuration = duration;
+            }
+        }
+
+        void remove(BookingIntervalDto interval) {
+            BookingIntervalDto stored = byId.remove(interval.getId());
+            if (stored != null) {
+                byStart.remove(stored);
+            }
+        }
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            BookingIntervalDto from = new BookingIntervalDto(Long.MIN_VALUE, start.minus(maxDuration), null);
+            BookingIntervalDto to = new BookingIntervalDto(Long.MIN_VALUE, end, null);
+            return byStart.subSet(from, true, to, false).stream()
+                    .anyMatch(interval -> interval.getEnd().isAfter(start));
+        }
+
+        /**
+         * Удаляет интервалы, закончившиеся к моменту now
+         *
+         * @return true, если интервалов не осталось
+         */
+        boolean prune(LocalDateTime now) {
+            NavigableSet<BookingIntervalDto> ended =
+                    byStart.headSet(new BookingIntervalDto(Long.MIN_VALUE, now.minus(maxDuration), null), false);
+            ended.forEach(interval -> byId.remove(interval.getId()));
+            ended.clear();
+            byStart.headSet(new BookingIntervalDto(Long.MIN_VALUE, now, null), false)
+                    .removeIf(interval -> {
+                        boolean isEnded = !interval.getEnd().isAfter(now);
+                        if (isEnded) {
+                            byId.remove(interval.getId());
+                        }
+                        return isEnded;
+                    });
+            if (byStart.isEmpty()) {
+                maxDuration = Duration.ZERO;
+            }
+            return byStart.isEmpty();
+        }
+    }
+}
\ No newline at end of file
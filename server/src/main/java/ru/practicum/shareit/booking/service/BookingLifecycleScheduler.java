@@ -0,0 +1,194 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingLifecycleDto;
+import ru.practicum.shareit.booking.enums.Phase;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.HierarchicalTimingWheel;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Планировщик жизненного цикла бронирований. Моменты начала и окончания каждой брони, а для броней
+ * в статусе WAITING — момент истечения ожидания, хранятся в иерархическом колесе таймеров.
+ * На каждом такте наступившие события применяются пакетными UPDATE: фаза брони переводится
+ * в CURRENT или PAST, а не подтверждённые к началу брони (плюс shareit.booking.waiting-expiry, по умолчанию 0)
+ * отменяются со статусом CANCELED и освобождают интервал в BookingIntervalIndex.
+ * При старте фазы всех броней и просроченные ожидания пересчитываются по Clock приложения, а колесо
+ * заполняется бронированиями, которые ещё не закончились. Фазы, заполненные миграцией V4 по часам базы,
+ * при этом перезаписываются, поэтому расхождение часов и часового пояса базы с приложением не сохраняется.
+ */
+@Slf4j
+@Component
+public class BookingLifecycleScheduler {
+    private static final int WHEEL_SIZE = 64;
+
+    private final BookingRepository bookings;
+    private final BookingIntervalIndex intervalIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final Duration waitingExpiry;
+    private final HierarchicalTimingWheel<Event> wheel;
+    private final List<Event> overdue = new ArrayList<>();
+
+    @Autowired
+    public BookingLifecycleScheduler(BookingRepository bookings,
+                                     BookingIntervalIndex intervalIndex,
+                                     PlatformTransactionManager transactionManager,
+                                     Clock clock,
+                                     @Value("${shareit.booking.lifecycle.tick-millis:250}") long tickMillis,
+                                     @Value("${shareit.booking.waiting-expiry:PT0S}") Duration waitingExpiry) {
+        this.bookings = bookings;
+        this.intervalIndex = intervalIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.waitingExpiry = waitingExpiry;
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, WHEEL_SIZE, clock.millis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<BookingLifecycleDto> active = transactionTemplate.execute(status -> {
+            bookings.updatePhaseByStartAfter(now, Phase.FUTURE);
+            bookings.updatePhaseByStartBeforeAndEndAfter(now, Phase.CURRENT);
+            bookings.updatePhaseByEndBefore(now, Phase.PAST);
+            bookings.cancelWaitingStartedBefore(now.minus(waitingExpiry), Status.WAITING, Status.CANCELED);
+            return bookings.findLifecycleByEndAfter(now);
+        });
+        active.forEach(this::schedule);
+        log.info("Запланированы переходы для {} бронирований", active.size());
+    }
+
+    /**
+     * Планирует переходы новой брони после фиксации транзакции, в которой она создана
+     *
+     * @param booking сохранённая бронь
+     */
+    public void schedule(Booking booking) {
+        BookingLifecycleDto lifecycle = new BookingLifecycleDto(booking.getId(), booking.getItem().getId(),
+                booking.getStart(), booking.getEnd(), booking.getStatus());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule(lifecycle);
+                }
+            });
+        } else {
+            schedule(lifecycle);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.lifecycle.tick-millis:250}")
+    public void tick() {
+        List<Event> due;
+        synchronized (wheel) {
+            due = new ArrayList<>(overdue);
+            overdue.clear();
+            due.addAll(wheel.advance(clock.millis()));
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(due));
+        } catch (RuntimeException exception) {
+            log.warn("Не удалось применить {} событий бронирований, повтор на следующем такте", due.size(), exception);
+            synchronized (wheel) {
+                overdue.addAll(due);
+            }
+        }
+    }
+
+    private void schedule(BookingLifecycleDto booking) {
+        synchronized (wheel) {
+            add(new Event(EventType.START, booking), booking.getStart());
+            add(new Event(EventType.END, booking), booking.getEnd());
+            if (booking.getStatus() == Status.WAITING) {
+                add(new Event(EventType.EXPIRE, booking), booking.getStart().plus(waitingExpiry));
+            }
+        }
+    }
+
+    private void add(Event event, LocalDateTime deadline) {
+        if (!wheel.add(deadline.atZone(clock.getZone()).toInstant().toEpochMilli(), event)) {
+            overdue.add(event);
+        }
+    }
+
+    private void apply(List<Event> due) {
+        Map<Long, Phase> phases = new HashMap<>();
+        Map<Long, BookingLifecycleDto> expiring = new HashMap<>();
+        for (Event event : due) {
+            Long bookingId = event.booking.getId();
+            switch (event.type) {
+                case START:
+                    phases.merge(bookingId, Phase.CURRENT, BookingLifecycleScheduler::later);
+                    break;
+                case END:
+                    phases.merge(bookingId, Phase.PAST, BookingLifecycleScheduler::later);
+                    break;
+                case EXPIRE:
+                    expiring.put(bookingId, event.booking);
+                    break;
+                default:
+                    throw new IllegalStateException("Неизвестное событие брони: " + event.type);
+            }
+        }
+        Map<Phase, Set<Long>> byPhase = new EnumMap<>(Phase.class);
+        phases.forEach((bookingId, phase) -> byPhase.computeIfAbsent(phase, key -> new HashSet<>()).add(bookingId));
+        byPhase.forEach((phase, bookingIds) -> bookings.updatePhaseByIdIn(bookingIds, phase));
+        if (!expiring.isEmpty()) {
+            LocalDateTime cutoff = LocalDateTime.now(clock).minus(waitingExpiry);
+            if (bookings.cancelWaitingByIdInStartedBefore(expiring.keySet(), cutoff,
+                    Status.WAITING, Status.CANCELED) > 0) {
+                List<Long> canceled = bookings.findIdsByIdInAndStatus(expiring.keySet(), Status.CANCELED);
+                canceled.stream().map(expiring::get).forEach(booking -> intervalIndex.release(booking.getItemId(),
+                        booking.getId(), booking.getStart(), booking.getEnd()));
+                log.debug("Отменены неподтверждённые бронирования {}", canceled.stream()
+                        .map(String::valueOf).collect(Collectors.joining(", ")));
+            }
+        }
+    }
+
+    private static Phase later(Phase first, Phase second) {
+        return first.compareTo(second) >= 0 ? first : second;
+    }
+
+    private enum EventType {
+        START, END, EXPIRE
+    }
+
+    private static final class Event {
+        private final EventType type;
+        private final BookingLifecycleDto booking;
+
+        private Event(EventType type, BookingLifecycleDto booking) {
+            this.type = type;
+            this.booking = booking;
+        }
+    }
+}
\ No newline at end of file
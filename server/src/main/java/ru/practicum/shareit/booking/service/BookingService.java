@@ -1,9 +1,15 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionListDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.common.PageCursor;
+
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     /**
@@ -25,6 +31,15 @@ public interface BookingService {
      */
     BookingDtoResponse approveBooking(Long ownerId, Long bookingId, boolean approved);
 
+    /**
+     * Подтверждение или отклонение нескольких запросов на бронирование в одной транзакции
+     *
+     * @param ownerId   идентификатор Владельца
+     * @param decisions решения по броням
+     * @return BookingDecisionListDto с результатом по каждой брони в порядке решений
+     */
+    BookingDecisionListDto approveBookings(Long ownerId, List<BookingDecisionDto> decisions);
+
     /**
      * Возвращает Бронирование по идентификатору
      *
@@ -38,19 +53,38 @@ public interface BookingService {
      * Возвращает коллекцию Booking для текущего Пользователя
      *
      * @param pageable пагинация
+     * @param cursor   позиция, после которой начинается страница, или null для первой страницы
      * @param userId   идентификатор Пользователя
      * @param state    состояние
      * @return коллекцию BookingListDto
      */
-    BookingListDto getAllBookingsForUser(Pageable pageable, Long userId, String state);
+    BookingListDto getAllBookingsForUser(Pageable pageable, PageCursor cursor, Long userId, String state);
 
     /**
      * Возвращает коллекцию Booking для Вещей текущего Пользователя
      *
      * @param pageable пагинация
+     * @param cursor   позиция, после которой начинается страница, или null для первой страницы
      * @param userId   идентификатор Пользователя
      * @param state    состояние
      * @return коллекцию BookingListDto
      */
-    BookingListDto getAllBookingsForItemsUser(Pageable pageable, Long userId, String state);
+    BookingListDto getAllBookingsForItemsUser(Pageable pageable, PageCursor cursor, Long userId, String state);
+
+    /**
+     * Проверяет, что Пользователь существует. Вызывается до начала потоковой выгрузки, пока статус
+     * ответа ещё не отправлен и неизвестному Пользователю можно ответить 404
+     *
+     * @param userId идентификатор Пользователя
+     */
+    void checkUserExists(Long userId);
+
+    /**
+     * Передаёт всю историю бронирований текущего Пользователя по одной Броне по мере чтения из базы,
+     * не собирая её целиком в памяти. Существование Пользователя проверяется заранее через checkUserExists
+     *
+     * @param userId   идентификатор Пользователя
+     * @param consumer получатель Броней в порядке (start DESC, id)
+     */
+    void exportBookingsForUser(Long userId, Consumer<BookingDtoResponse> consumer);
 }
\ No newline at end of file
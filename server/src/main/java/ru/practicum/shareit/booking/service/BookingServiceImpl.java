@@ -6,24 +6,39 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.enums.Phase;
 import ru.practicum.shareit.booking.enums.State;
 import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionListDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.booking.dto.BookingViewDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.PageCursor;
 import ru.practicum.shareit.error.handler.exception.StateException;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemDetailCache;
+import ru.practicum.shareit.item.service.ItemSuggestIndex;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.model.User;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
@@ -32,6 +47,11 @@ public class BookingServiceImpl implements BookingService {
     private final UserRepository users;
     private final ItemRepository items;
     private final BookingMapper mapper;
+    private final BookingIntervalIndex intervalIndex;
+    private final BookingLifecycleScheduler lifecycleScheduler;
+    private final ItemSuggestIndex suggestIndex;
+    private final ItemDetailCache detailCache;
+    private final Clock clock;
 
     @Override
     @Transactional
@@ -53,7 +73,12 @@ public class BookingServiceImpl implements BookingService {
                 Booking booking = mapper.mapToBookingFromBookingDto(bookingDto);
                 booking.setItem(item);
                 booking.setBooker(user);
-                return mapper.mapToBookingDtoResponse(bookings.save(booking));
+                booking.setPhase(Phase.of(booking.getStart(), booking.getEnd(), LocalDateTime.now(clock)));
+                Booking saved = intervalIndex.reserve(booking, () -> bookings.save(booking));
+                lifecycleScheduler.schedule(saved);
+                suggestIndex.booked(item.getId());
+                detailCache.evictBookings(item.getId());
+                return mapper.mapToBookingDtoResponse(saved);
             } else {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                         String.format("Вещь с id=%s недоступна для бронирования", item.getId()));
@@ -66,32 +91,86 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public BookingDtoResponse approveBooking(Long ownerId, Long bookingId, boolean approved) {
-        Booking booking = bookings.findById(bookingId).orElseThrow(
+        int updated = bookings.updateStatusByIdAndItemOwnerId(bookingId, ownerId, Status.WAITING,
+                approved ? Status.APPROVED : Status.REJECTED);
+        BookingViewDto booking = bookings.findViewById(bookingId).orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                         String.format("Бронирования с id=%s нет", bookingId)));
-        if (!booking.getStatus().equals(Status.WAITING)) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                    "Невозможно изменить статус брони со статусом " + booking.getStatus());
+        if (updated == 0) {
+            if (!booking.getStatus().equals(Status.WAITING)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Невозможно изменить статус брони со статусом " + booking.getStatus());
+            }
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    String.format("Пользователь с id=%s не является владельцем вещи с id=%s", ownerId, booking.getItemOwnerId()));
+        }
+        if (!approved) {
+            intervalIndex.release(booking.getItemId(), booking.getId(), booking.getStart(), booking.getEnd());
         }
-        if (booking.getItem().getOwner().getId().equals(ownerId)) {
-            if (approved) {
-                booking.setStatus(Status.APPROVED);
+        detailCache.evictBookings(booking.getItemId());
+        return mapper.mapToBookingDtoResponse(booking);
+    }
+
+    @Override
+    @Transactional
+    public BookingDecisionListDto approveBookings(Long ownerId, List<BookingDecisionDto> decisions) {
+        // Строки броней заблокированы до конца транзакции, поэтому проверенный здесь статус WAITING
+        // не изменится до UPDATE и каждое решение с кодом 200 действительно меняет свою бронь
+        Map<Long, Booking> found = bookings.findAllForUpdateByIdIn(decisions.stream()
+                        .map(BookingDecisionDto::getBookingId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Map<Long, BookingDecisionResultDto> results = new HashMap<>();
+        Map<Status, Map<Long, BookingDtoResponse>> transitions = new EnumMap<>(Status.class);
+        for (BookingDecisionDto decision : decisions) {
+            Long bookingId = decision.getBookingId();
+            if (results.containsKey(bookingId)) {
+                continue;
+            }
+            Booking booking = found.get(bookingId);
+            if (booking == null) {
+                results.put(bookingId, rejectedDecision(bookingId, HttpStatus.NOT_FOUND,
+                        String.format("Бронирования с id=%s нет", bookingId)));
+            } else if (!booking.getStatus().equals(Status.WAITING)) {
+                results.put(bookingId, rejectedDecision(bookingId, HttpStatus.BAD_REQUEST,
+                        "Невозможно изменить статус брони со статусом " + booking.getStatus()));
+            } else if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+                results.put(bookingId, rejectedDecision(bookingId, HttpStatus.NOT_FOUND,
+                        String.format("Пользователь с id=%s не является владельцем вещи с id=%s", ownerId, booking.getItem().getOwner().getId())));
             } else {
-                booking.setStatus(Status.REJECTED);
+                Status status = decision.getApproved() ? Status.APPROVED : Status.REJECTED;
+                BookingDtoResponse response = mapper.mapToBookingDtoResponse(booking);
+                response.setStatus(status);
+                transitions.computeIfAbsent(status, key -> new HashMap<>()).put(bookingId, response);
+                results.put(bookingId, BookingDecisionResultDto.builder()
+                        .bookingId(bookingId).code(HttpStatus.OK.value()).booking(response).build());
             }
-            return mapper.mapToBookingDtoResponse(bookings.save(booking));
-        } else {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
-                    String.format("Пользователь с id=%s не является владельцем вещи с id=%s", ownerId, booking.getItem().getOwner().getId()));
         }
+        transitions.forEach((status, changed) -> {
+            int updated = bookings.updateStatusByIdInAndItemOwnerId(changed.keySet(), ownerId, Status.WAITING, status);
+            if (updated != changed.size()) {
+                throw new IllegalStateException(String.format(
+                        "Изменено %s броней из %s заблокированных в статусе WAITING", updated, changed.size()));
+            }
+            changed.keySet().forEach(bookingId -> {
+                Booking booking = found.get(bookingId);
+                if (status.equals(Status.REJECTED)) {
+                    intervalIndex.release(booking);
+                }
+                detailCache.evictBookings(booking.getItem().getId());
+            });
+        });
+        return BookingDecisionListDto.builder()
+                .results(decisions.stream().map(BookingDecisionDto::getBookingId).distinct()
+                        .map(results::get).collect(Collectors.toList()))
+                .build();
     }
 
     @Override
     @Transactional(readOnly = true)
     public BookingDtoResponse getBookingByIdForOwnerAndBooker(Long bookingId, Long userId) {
-        Booking booking = bookings.findById(bookingId).orElseThrow(
+        BookingViewDto booking = bookings.findViewById(bookingId).orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Бронирования с id=" + bookingId + " нет"));
-        if (!(booking.getBooker().getId().equals(userId) || booking.getItem().getOwner().getId().equals(userId))) {
+        if (!(booking.getBookerId().equals(userId) || booking.getItemOwnerId().equals(userId))) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND,
                     String.format("Пользователь с id=%s не является автором бронирования или владельцем вещи, к которой относится бронирование", userId));
         }
@@ -100,121 +179,98 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public BookingListDto getAllBookingsForUser(Pageable pageable, Long userId, String state) {
+    public BookingListDto getAllBookingsForUser(Pageable pageable, PageCursor cursor, Long userId, String state) {
         if (!users.existsById(userId)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND,
                     String.format("Пользователя с id=%s не существует", userId));
         } else {
-            return getListBookings(pageable, state, userId, false);
+            return getListBookings(pageable, cursor, state, userId, false);
         }
     }
 
     @Override
     @Transactional(readOnly = true)
-    public BookingListDto getAllBookingsForItemsUser(Pageable pageable, Long userId, String state) {
+    public BookingListDto getAllBookingsForItemsUser(Pageable pageable, PageCursor cursor, Long userId, String state) {
         if (!users.existsById(userId)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Пользователя с id=%s не существует", userId));
         }
-        if (!items.existsItemByOwnerId(userId)) {
+        BookingListDto bookingList = getListBookings(pageable, cursor, state, userId, true);
+        if (bookingList.getBookings().isEmpty() && !items.existsItemByOwnerId(userId)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND,
                     String.format("У пользователя с id=%s нет зарегистрированых вещей", userId));
-        } else {
-            return getListBookings(pageable, state, userId, true);
         }
+        return bookingList;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void checkUserExists(Long userId) {
+        if (!users.existsById(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    String.format("Пользователя с id=%s не существует", userId));
+        }
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBookingsForUser(Long userId, Consumer<BookingDtoResponse> consumer) {
+        try (Stream<BookingViewDto> history = bookings.streamAllByBookerId(userId)) {
+            history.map(mapper::mapToBookingDtoResponse).forEach(consumer);
+        }
     }
 
-    private BookingListDto getListBookings(Pageable pageable, String state, Long userId, Boolean isOwner) {
-        List<Long> itemsId;
+    private BookingListDto getListBookings(Pageable pageable, PageCursor cursor, String state, Long userId,
+                                           Boolean isOwner) {
+        PageCursor position = PageCursor.orLatest(cursor);
+        LocalDateTime start = position.getPosition();
+        Long id = position.getId();
+        List<BookingViewDto> page;
         switch (State.fromValue(state.toUpperCase())) {
             case ALL:
-                if (isOwner) {
-                    itemsId = items.findAllItemIdByOwnerId(userId);
-                    return BookingListDto.builder()
-                            .bookings(bookings.findAllByItemIdInOrderByStartDesc(pageable, itemsId).stream()
-                                    .map(mapper::mapToBookingDtoResponse).collect(Collectors.toList())).build();
-                } else {
-                    return BookingListDto.builder()
-                            .bookings(bookings.findAllByBookerIdOrderByStartDesc(pageable, userId).stream()
-                                    .map(mapper::mapToBookingDtoResponse).collect(Collectors.toList())).build();
-                }
+                page = isOwner
+                        ? bookings.findAllByItemOwnerId(pageable, userId, start, id)
+                        : bookings.findAllByBookerId(pageable, userId, start, id);
+                break;
             case CURRENT:
-                if (isOwner) {
-                    itemsId = items.findAllItemIdByOwnerId(userId);
-                    return BookingListDto.builder().bookings(
-                            bookings.findAllByItemIdInAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-                                            pageable, itemsId, LocalDateTime.now(), LocalDateTime.now()).stream()
-                                    .map(mapper::mapToBookingDtoResponse).collect(Collectors.toList())).build();
-                } else {
-                    return BookingListDto.builder().bookings(
-                            bookings.findAllByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-                                            pageable, userId, LocalDateTime.now(), LocalDateTime.now()).stream()
-                                    .map(mapper::mapToBookingDtoResponse).collect(Collectors.toList())).build();
-                }
+                page = isOwner
+                        ? bookings.findAllByItemOwnerIdAndPhase(pageable, userId, Phase.CURRENT, start, id)
+                        : bookings.findAllByBookerIdAndPhase(pageable, userId, Phase.CURRENT, start, id);
+                break;
             case PAST:
-                if (isOwner) {
-                    itemsId = items.findAllItemIdByOwnerId(userId);
-                    return BookingListDto.builder()
-                            .bookings(bookings
-                                    .findAllByItemIdInAndEndIsBeforeOrderByStartDesc(
-                                            pageable, itemsId, LocalDateTime.now()
-                                    ).stream().map(mapper::mapToBookingDtoResponse).collect(Collectors.toList()))
-                            .build();
-                } else {
-                    return BookingListDto.builder()
-                            .bookings(bookings
-                                    .findAllByBookerIdAndEndIsBeforeOrderByStartDesc(
-                                            pageable, userId, LocalDateTime.now()
-                                    ).stream().map(mapper::mapToBookingDtoResponse).collect(Collectors.toList()))
-                            .build();
-                }
+                page = isOwner
+                        ? bookings.findAllByItemOwnerIdAndPhase(pageable, userId, Phase.PAST, start, id)
+                        : bookings.findAllByBookerIdAndPhase(pageable, userId, Phase.PAST, start, id);
+                break;
             case FUTURE:
-                if (isOwner) {
-                    itemsId = items.findAllItemIdByOwnerId(userId);
-                    return BookingListDto.builder()
-                            .bookings(bookings
-                                    .findAllByItemIdInAndStartIsAfterOrderByStartDesc(pageable, itemsId, LocalDateTime.now())
-                                    .stream().map(mapper::mapToBookingDtoResponse).collect(Collectors.toList()))
-                            .build();
-                } else {
-                    return BookingListDto.builder()
-                            .bookings(bookings
-                                    .findAllByBookerIdAndStartIsAfterOrderByStartDesc(pageable, userId, LocalDateTime.now())
-                                    .stream().map(mapper::mapToBookingDtoResponse).collect(Collectors.toList()))
-                            .build();
-                }
+                page = isOwner
+                        ? bookings.findAllByItemOwnerIdAndPhase(pageable, userId, Phase.FUTURE, start, id)
+                        : bookings.findAllByBookerIdAndPhase(pageable, userId, Phase.FUTURE, start, id);
+                break;
             case WAITING:
-                if (isOwner) {
-                    itemsId = items.findAllItemIdByOwnerId(userId);
-                    return BookingListDto.builder()
-                            .bookings(bookings
-                                    .findAllByItemIdInAndStatusIsOrderByStartDesc(pageable, itemsId, Status.WAITING)
-                                    .stream().map(mapper::mapToBookingDtoResponse).collect(Collectors.toList()))
-                            .build();
-                } else {
-                    return BookingListDto.builder()
-                            .bookings(bookings
-                                    .findAllByBookerIdAndStatusIsOrderByStartDesc(pageable, userId, Status.WAITING)
-                                    .stream().map(mapper::mapToBookingDtoResponse).collect(Collectors.toList()))
-                            .build();
-                }
+                page = isOwner
+                        ? bookings.findAllByItemOwnerIdAndStatus(pageable, userId, Status.WAITING, start, id)
+                        : bookings.findAllByBookerIdAndStatus(pageable, userId, Status.WAITING, start, id);
+                break;
             case REJECTED:
-                if (isOwner) {
-                    itemsId = items.findAllItemIdByOwnerId(userId);
-                    return BookingListDto.builder()
-                            .bookings(bookings
-                                    .findAllByItemIdInAndStatusIsOrderByStartDesc(pageable, itemsId, Status.REJECTED)
-                                    .stream().map(mapper::mapToBookingDtoResponse).collect(Collectors.toList()))
-                            .build();
-                } else {
-                    return BookingListDto.builder()
-                            .bookings(bookings
-                                    .findAllByBookerIdAndStatusIsOrderByStartDesc(pageable, userId, Status.REJECTED)
-                                    .stream().map(mapper::mapToBookingDtoResponse).collect(Collectors.toList()))
-                            .build();
-                }
+                page = isOwner
+                        ? bookings.findAllByItemOwnerIdAndStatus(pageable, userId, Status.REJECTED, start, id)
+                        : bookings.findAllByBookerIdAndStatus(pageable, userId, Status.REJECTED, start, id);
+                break;
             default:
                 throw new StateException("Unknown state: " + state);
         }
+        String nextCursor = null;
+        if (page.size() == pageable.getPageSize()) {
+            BookingViewDto last = page.get(page.size() - 1);
+            nextCursor = PageCursor.of(last.getStart(), last.getId()).encode();
+        }
+        return BookingListDto.builder()
+                .bookings(page.stream().map(mapper::mapToBookingDtoResponse).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private BookingDecisionResultDto rejectedDecision(Long bookingId, HttpStatus status, String error) {
+        return BookingDecisionResultDto.builder().bookingId(bookingId).code(status.value()).error(error).build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class ClockConfig {
+    /**
+     * Источник текущего времени для бронирований. Подменяется фиксированными часами,
+     * чтобы переходы по времени проверялись детерминированно.
+     */
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
\ No newline at end of file
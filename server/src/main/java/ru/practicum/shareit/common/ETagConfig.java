@@ -0,0 +1,21 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class ETagConfig {
+    /**
+     * ETag для GET-ответов, которые кэширует шлюз: на перепроверку с совпавшим If-None-Match
+     * сервер отвечает 304 без тела. Выгрузка бронирований сюда не входит, так как фильтр буферизует ответ.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/items/*", "/users", "/users/*", "/requests/*");
+        return registration;
+    }
+}
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Иерархическое колесо таймеров. Нулевой уровень делит время на такты длиной tickMillis,
+ * каждый следующий уровень покрывает полный оборот предыдущего одной ячейкой и создаётся
+ * по мере необходимости, поэтому добавление и извлечение задачи не зависят от количества
+ * задач и от того, насколько далеко в будущем их срок. При переходе времени через границу
+ * ячейки верхнего уровня её задачи раскладываются по нижним уровням.
+ * Задача срабатывает не раньше своего срока и не позже чем через такт после него.
+ * Класс не потокобезопасен.
+ *
+ * @param <T> задача
+ */
+public class HierarchicalTimingWheel<T> {
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<Level<T>> levels = new ArrayList<>();
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis < 1 || wheelSize < 2) {
+            throw new IllegalArgumentException("Длина такта должна быть положительной, а размер колеса больше единицы");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        levels.add(new Level<>(tickMillis, wheelSize, startMillis - Math.floorMod(startMillis, tickMillis)));
+    }
+
+    /**
+     * Добавляет задачу со сроком deadlineMillis
+     *
+     * @return false, если срок уже прошёл и задачу нужно выполнить сразу
+     */
+    public boolean add(long deadlineMillis, T task) {
+        if (deadlineMillis < levels.get(0).currentTime) {
+            return false;
+        }
+        place(new Entry<>(deadlineMillis, task));
+        size++;
+        return true;
+    }
+
+    /**
+     * Продвигает колесо до момента nowMillis
+     *
+     * @return задачи, срок которых наступил, в порядке возрастания срока с точностью до такта
+     */
+    public List<T> advance(long nowMillis) {
+        List<T> due = new ArrayList<>();
+        Level<T> first = levels.get(0);
+        while (first.currentTime + tickMillis <= nowMillis) {
+            for (Entry<T> entry : first.drain(first.currentTime)) {
+                due.add(entry.task);
+            }
+            first.currentTime += tickMillis;
+            cascade(first.currentTime);
+        }
+        size -= due.size();
+        return due;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Сдвигает верхние уровни к моменту time и раскладывает по нижним уровням задачи ячеек,
+     * начало которых наступило. Сначала сдвигаются все уровни, затем ячейки разбираются сверху вниз,
+     * чтобы задачи попадали в уровни с уже актуальным временем.
+     */
+    private void cascade(long time) {
+        List<Level<T>> advanced = new ArrayList<>();
+        for (int i = 1; i < levels.size(); i++) {
+            Level<T> level = levels.get(i);
+            long levelTime = time - Math.floorMod(time, level.tick);
+            if (levelTime > level.currentTime) {
+                level.currentTime = levelTime;
+                advanced.add(level);
+            }
+        }
+        for (int i = advanced.size() - 1; i >= 0; i--) {
+            Level<T> level = advanced.get(i);
+            for (Entry<T> entry : level.drain(level.currentTime)) {
+                place(entry);
+            }
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        for (int i = 0; ; i++) {
+            if (i == levels.size()) {
+                long tick = levels.get(i - 1).tick * wheelSize;
+                long time = levels.get(0).currentTime;
+                levels.add(new Level<>(tick, wheelSize, time - Math.floorMod(time, tick)));
+            }
+            Level<T> level = levels.get(i);
+            if (entry.deadline < level.currentTime + level.tick * wheelSize) {
+                level.bucket(entry.deadline).add(entry);
+                return;
+            }
+        }
+    }
+
+    private static final class Entry<T> {
+        private final long deadline;
+        private final T task;
+
+        private Entry(long deadline, T task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+    }
+
+    private static final class Level<T> {
+        private final long tick;
+        private final List<List<Entry<T>>> buckets;
+        private long currentTime;
+
+        private Level(long tick, int wheelSize, long currentTime) {
+            this.tick = tick;
+            this.currentTime = currentTime;
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new ArrayList<>());
+            }
+        }
+
+        private List<Entry<T>> bucket(long time) {
+            return buckets.get((int) Math.floorMod(Math.floorDiv(time, tick), (long) buckets.size()));
+        }
+
+        private List<Entry<T>> drain(long time) {
+            List<Entry<T>> bucket = bucket(time);
+            List<Entry<T>> drained = new ArrayList<>(bucket);
+            bucket.clear();
+            return drained;
+        }
+    }
+}
\ No newline at end of file
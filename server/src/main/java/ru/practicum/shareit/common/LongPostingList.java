@@ -0,0 +1,66 @@
+package ru.practicum.shareit.common;
+
+import java.util.Arrays;
+
+/**
+ * Отсортированный по возрастанию список различных идентификаторов на массиве long без упаковки
+ * в объекты. Используется как список вхождений терма в инвертированном индексе. Не потокобезопасен.
+ */
+public class LongPostingList {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Добавляет идентификатор, сохраняя порядок
+     *
+     * @param id идентификатор
+     * @return true, если идентификатора в списке ещё не было
+     */
+    public boolean add(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return false;
+        }
+        position = -position - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+        return true;
+    }
+
+    /**
+     * Удаляет идентификатор
+     *
+     * @param id идентификатор
+     * @return true, если идентификатор был в списке
+     */
+    public boolean remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        if (size > INITIAL_CAPACITY && size < ids.length >> 2) {
+            ids = Arrays.copyOf(ids, ids.length >> 1);
+        }
+        return true;
+    }
+
+    public long get(int index) {
+        return ids[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
\ No newline at end of file
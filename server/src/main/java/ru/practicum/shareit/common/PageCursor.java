@@ -0,0 +1,108 @@
+package ru.practicum.shareit.common;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Непрозрачный курсор для keyset-пагинации: позиция последней записи страницы
+ * в виде пары (дата, идентификатор) или только идентификатора.
+ * Следующая страница выбирается условием по ключу сортировки вместо OFFSET,
+ * поэтому её стоимость не зависит от глубины пролистывания.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class PageCursor {
+    public static final String HEADER = "X-Next-Cursor";
+    /**
+     * Начальная позиция выборок, отсортированных по убыванию даты и возрастанию идентификатора
+     */
+    public static final PageCursor LATEST = new PageCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), 0L);
+    /**
+     * Начальная позиция выборок, отсортированных по возрастанию идентификатора
+     */
+    public static final PageCursor FIRST_ID = new PageCursor(null, 0L);
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime position;
+    private final Long id;
+
+    public static PageCursor of(LocalDateTime position, Long id) {
+        return new PageCursor(position, id);
+    }
+
+    public static PageCursor of(Long id) {
+        return new PageCursor(null, id);
+    }
+
+    /**
+     * Разбирает курсор, переданный клиентом
+     *
+     * @param token курсор или null
+     * @return PageCursor или null, если курсор не передан
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException(value);
+            }
+            LocalDateTime position = separator == 0 ? null : LocalDateTime.parse(value.substring(0, separator));
+            return new PageCursor(position, Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException exception) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Некорректный курсор " + token);
+        }
+    }
+
+    /**
+     * Возвращает курсор для выборок по убыванию даты, начиная с первой страницы, если курсор не передан
+     */
+    public static PageCursor orLatest(PageCursor cursor) {
+        if (cursor == null) {
+            return LATEST;
+        }
+        if (cursor.getPosition() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Курсор не содержит даты");
+        }
+        return cursor;
+    }
+
+    /**
+     * Возвращает курсор для выборок по возрастанию идентификатора, начиная с первой страницы, если курсор не передан
+     */
+    public static PageCursor orFirstId(PageCursor cursor) {
+        return cursor == null ? FIRST_ID : cursor;
+    }
+
+    /**
+     * Заголовки ответа с курсором следующей страницы
+     *
+     * @param nextCursor курсор следующей страницы или null, если страница последняя
+     * @return HttpHeaders
+     */
+    public static HttpHeaders headers(String nextCursor) {
+        HttpHeaders headers = new HttpHeaders();
+        if (nextCursor != null) {
+            headers.set(HEADER, nextCursor);
+        }
+        return headers;
+    }
+
+    public String encode() {
+        String value = (position == null ? "" : position.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
\ No newline at end of file
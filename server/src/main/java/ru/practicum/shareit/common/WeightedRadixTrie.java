@@ -0,0 +1,258 @@
+package ru.practicum.shareit.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Сжатое префиксное дерево (radix trie) над строками с весом. Рёбра помечены фрагментами строк,
+ * узлы с единственным потомком сливаются, а дети узла хранятся в массиве, упорядоченном
+ * по первому символу метки. У каждого ключа есть счётчик ссылок: ключ удаляется, когда
+ * счётчик опускается до нуля. Каждый узел хранит наибольший вес ключа в своём поддереве,
+ * поэтому top находит k самых тяжёлых продолжений префикса, не обходя всё поддерево.
+ * Не потокобезопасно.
+ */
+public class WeightedRadixTrie {
+    private static final char[] EMPTY = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Comparator<Candidate> BY_WEIGHT = Comparator
+            .comparingLong((Candidate candidate) -> -candidate.weight)
+            .thenComparing(candidate -> candidate.text)
+            .thenComparing(candidate -> candidate.node != null ? 0 : 1);
+
+    private final Node root = new Node(EMPTY);
+    private int size;
+
+    /**
+     * Изменяет счётчик ссылок и вес ключа. Ключ добавляется, если его не было,
+     * и удаляется, когда счётчик ссылок становится равен нулю.
+     *
+     * @param key         ключ
+     * @param countDelta  изменение счётчика ссылок
+     * @param weightDelta изменение веса
+     */
+    public void update(String key, int countDelta, long weightDelta) {
+        update(root, key, 0, countDelta, weightDelta);
+    }
+
+    /**
+     * Возвращает до limit ключей, начинающихся с prefix, по убыванию веса,
+     * при равном весе — в лексикографическом порядке
+     *
+     * @param prefix префикс
+     * @param limit  наибольшее количество ключей
+     * @return коллекцию Entry
+     */
+    public List<Entry> top(String prefix, int limit) {
+        Node node = root;
+        StringBuilder path = new StringBuilder(prefix.length());
+        int offset = 0;
+        while (offset < prefix.length()) {
+            int index = node.indexOf(prefix.charAt(offset));
+            if (index < 0) {
+                return List.of();
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, prefix, offset);
+            if (common < child.label.length && offset + common < prefix.length()) {
+                return List.of();
+            }
+            path.append(child.label);
+            offset += common;
+            node = child;
+        }
+        List<Entry> top = new ArrayList<>(limit);
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(BY_WEIGHT);
+        if (node.maxWeight != Long.MIN_VALUE) {
+            candidates.add(new Candidate(path.toString(), node, node.maxWeight));
+        }
+        while (!candidates.isEmpty() && top.size() < limit) {
+            Candidate candidate = candidates.poll();
+            if (candidate.node == null) {
+                top.add(new Entry(candidate.text, candidate.weight));
+                continue;
+            }
+            Node expanded = candidate.node;
+            if (expanded.isKey()) {
+                candidates.add(new Candidate(candidate.text, null, expanded.weight));
+            }
+            for (Node child : expanded.children) {
+                candidates.add(new Candidate(candidate.text + new String(child.label), child, child.maxWeight));
+            }
+        }
+        return top;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void update(Node node, String key, int offset, int countDelta, long weightDelta) {
+        if (offset == key.length()) {
+            boolean wasKey = node.isKey();
+            node.count += countDelta;
+            node.weight += weightDelta;
+            if (node.count <= 0) {
+                node.count = 0;
+                node.weight = 0;
+            }
+            if (wasKey != node.isKey()) {
+                size += wasKey ? -1 : 1;
+            }
+        } else {
+            int index = node.indexOf(key.charAt(offset));
+            if (index < 0) {
+                if (countDelta <= 0) {
+                    return;
+                }
+                Node child = new Node(key.substring(offset).toCharArray());
+                child.count = countDelta;
+                child.weight = weightDelta;
+                child.maxWeight = weightDelta;
+                node.insert(-index - 1, child);
+                size++;
+            } else {
+                Node child = node.children[index];
+                int common = commonPrefix(child.label, key, offset);
+                if (common < child.label.length) {
+                    if (countDelta <= 0) {
+                        return;
+                    }
+                    child = node.split(index, common);
+                }
+                update(child, key, offset + common, countDelta, weightDelta);
+                node.compact(index);
+            }
+        }
+        node.updateMaxWeight();
+    }
+
+    private static int commonPrefix(char[] label, String key, int offset) {
+        int length = Math.min(label.length, key.length() - offset);
+        int common = 0;
+        while (common < length && label[common] == key.charAt(offset + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    /**
+     * Ключ и его вес
+     */
+    public static class Entry {
+        private final String key;
+        private final long weight;
+
+        Entry(String key, long weight) {
+            this.key = key;
+            this.weight = weight;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+    }
+
+    private static class Candidate {
+        private final String text;
+        private final Node node;
+        private final long weight;
+
+        Candidate(String text, Node node, long weight) {
+            this.text = text;
+            this.node = node;
+            this.weight = weight;
+        }
+    }
+
+    private static class Node {
+        private char[] label;
+        private Node[] children = NO_CHILDREN;
+        private int count;
+        private long weight;
+        private long maxWeight = Long.MIN_VALUE;
+
+        Node(char[] label) {
+            this.label = label;
+        }
+
+        boolean isKey() {
+            return count > 0;
+        }
+
+        int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char current = children[middle].label[0];
+                if (current < first) {
+                    low = middle + 1;
+                } else if (current > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        void insert(int index, Node child) {
+            Node[] expanded = new Node[children.length + 1];
+            System.arraycopy(children, 0, expanded, 0, index);
+            expanded[index] = child;
+            System.arraycopy(children, index, expanded, index + 1, children.length - index);
+            children = expanded;
+        }
+
+        /**
+         * Разбивает метку ребёнка index после length символов и возвращает новый промежуточный узел
+         */
+        Node split(int index, int length) {
+            Node child = children[index];
+            Node middle = new Node(Arrays.copyOf(child.label, length));
+            child.label = Arrays.copyOfRange(child.label, length, child.label.length);
+            middle.children = new Node[]{child};
+            middle.maxWeight = child.maxWeight;
+            children[index] = middle;
+            return middle;
+        }
+
+        /**
+         * Удаляет ребёнка index, если в его поддереве не осталось ключей,
+         * и сливает его с единственным потомком, если сам он не ключ
+         */
+        void compact(int index) {
+            Node child = children[index];
+            if (child.isKey()) {
+                return;
+            }
+            if (child.children.length == 0) {
+                Node[] reduced = new Node[children.length - 1];
+                System.arraycopy(children, 0, reduced, 0, index);
+                System.arraycopy(children, index + 1, reduced, index, children.length - index - 1);
+                children = reduced.length == 0 ? NO_CHILDREN : reduced;
+            } else if (child.children.length == 1) {
+                Node grandchild = child.children[0];
+                char[] label = Arrays.copyOf(child.label, child.label.length + grandchild.label.length);
+                System.arraycopy(grandchild.label, 0, label, child.label.length, grandchild.label.length);
+                grandchild.label = label;
+                children[index] = grandchild;
+            }
+        }
+
+        void updateMaxWeight() {
+            long max = isKey() ? weight : Long.MIN_VALUE;
+            for (Node child : children) {
+                max = Math.max(max, child.maxWeight);
+            }
+            maxWeight = max;
+        }
+    }
+}
\ No newline at end of file
@@ -2,11 +2,12 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.common.PageCursor;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.dto.*;
 
@@ -36,21 +37,29 @@ public class ItemController {
     }
 
     @GetMapping("{itemId}")
-    public ResponseEntity<ItemDtoResponse> getItemByItemId(@RequestHeader(userIdHeader) Long userId,
-                                                           @PathVariable Long itemId) {
+    public ResponseEntity<ItemDtoResponse> getItemByItemId(
+            @RequestHeader(userIdHeader) Long userId,
+            @PathVariable Long itemId,
+            @RequestParam(value = "commentsFrom", defaultValue = "0") Integer commentsFrom,
+            @RequestParam(value = "commentsSize", defaultValue = "10") Integer commentsSize) {
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(itemService.getItemByItemId(userId, itemId));
+                .body(itemService.getItemByItemId(userId, itemId, OffsetPageRequest.of(commentsFrom, commentsSize)));
     }
 
     @GetMapping
     public ResponseEntity<ItemListDto> getPersonalItems(
             @RequestHeader(userIdHeader) Long userId,
             @RequestParam(value = "from", defaultValue = "0") Integer from,
-            @RequestParam(value = "size", defaultValue = "10") Integer size) {
+            @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        ItemListDto itemList = itemService.getPersonalItems(
+                OffsetPageRequest.of(pageCursor == null ? from : 0, size), pageCursor, userId);
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(itemService.getPersonalItems(PageRequest.of(from / size, size), userId));
+                .headers(PageCursor.headers(itemList.getNextCursor()))
+                .body(itemList);
     }
 
     @GetMapping("search")
@@ -60,7 +69,16 @@ public class ItemController {
             @RequestParam(value = "size", defaultValue = "10") Integer size) {
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(itemService.getFoundItems(PageRequest.of(from / size, size), text));
+                .body(itemService.getFoundItems(OffsetPageRequest.of(from, size), text));
+    }
+
+    @GetMapping("suggest")
+    public ResponseEntity<ItemSuggestionListDto> getSuggestions(
+            @RequestParam String prefix,
+            @RequestParam(value = "size", defaultValue = "10") Integer size) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(itemService.getSuggestions(prefix, size));
     }
 
     @PostMapping("{itemId}/comment")
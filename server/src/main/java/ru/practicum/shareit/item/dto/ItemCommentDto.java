@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ItemCommentDto {
+    private Long itemId;
+    private Long id;
+    private String text;
+    private String authorName;
+    private LocalDateTime created;
+}
\ No newline at end of file
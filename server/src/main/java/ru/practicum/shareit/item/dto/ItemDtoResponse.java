@@ -5,7 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 
-import java.util.Set;
+import java.util.List;
 
 @Builder
 @Getter
@@ -18,5 +18,5 @@ public class ItemDtoResponse {
     private Long requestId;
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
-    private Set<CommentDtoResponse> comments;
+    private List<CommentDtoResponse> comments;
 }
\ No newline at end of file
@@ -11,4 +11,8 @@ import java.util.List;
 public class ItemListDto {
     @JsonValue
     private List<ItemDtoResponse> items;
+    /**
+     * Курсор следующей страницы, передаётся клиенту в заголовке X-Next-Cursor
+     */
+    private String nextCursor;
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemSearchDto {
+    private Long id;
+    private String name;
+    private String description;
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemSuggestionDto {
+    private String text;
+    /**
+     * Суммарное количество бронирований доступных Вещей, в названии которых есть это слово
+     */
+    private Long bookings;
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Builder
+@Getter
+public class ItemSuggestionListDto {
+    @JsonValue
+    private List<ItemSuggestionDto> suggestions;
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Столбцы Вещи, нужные для ItemDtoResponse и проверки владельца, без загрузки сущности
+ */
+@Data
+@AllArgsConstructor
+public class ItemViewDto {
+    private Long id;
+    private String name;
+    private String description;
+    private Boolean available;
+    private Long requestId;
+    private Long ownerId;
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.enums;
+
+/**
+ * Способ поиска Вещей по тексту, задаётся свойством shareit.item.search.mode
+ */
+public enum SearchMode {
+    /**
+     * Поиск подстроки запросом LIKE к таблице items
+     */
+    LIKE,
+    /**
+     * Поиск по инвертированному индексу в памяти приложения
+     */
+    INDEX,
+    /**
+     * Полнотекстовый поиск средствами базы данных
+     */
+    FULL_TEXT
+}
\ No newline at end of file
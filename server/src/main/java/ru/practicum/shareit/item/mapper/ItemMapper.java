@@ -2,7 +2,7 @@ package ru.practicum.shareit.item.mapper;
 
 import org.mapstruct.*;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
@@ -10,18 +10,22 @@ import ru.practicum.shareit.item.model.Item;
 @Mapper(componentModel = "spring")
 public interface ItemMapper {
     @Mapping(source = "request.id", target = "requestId")
+    @Mapping(target = "comments", ignore = true)
     ItemDtoResponse mapToItemDtoResponse(Item item);
 
+    ItemDtoResponse mapToItemDtoResponse(ItemViewDto itemViewDto);
+
     Item mapToItemFromItemDto(ItemDto itemDto);
 
-    @Mapping(source = "booker.id", target = "bookerId")
-    BookingShortDto mapToBookingShortDto(Booking booking);
+    BookingShortDto mapToBookingShortDto(ItemBookingDto itemBookingDto);
 
     Comment mapToCommentFromCommentDto(CommentDto commentDto);
 
     @Mapping(source = "author.name", target = "authorName")
     CommentDtoResponse mapToCommentDtoResponseFromComment(Comment comment);
 
+    CommentDtoResponse mapToCommentDtoResponse(ItemCommentDto itemCommentDto);
+
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     Item mapToItemFromItemDtoUpdate(ItemDtoUpdate itemDtoUpdate, @MappingTarget Item item);
 }
\ No newline at end of file
@@ -1,7 +1,55 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemCommentDto;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    /*
+     * Комментарии нескольких Вещей вместе с именами авторов одним запросом, от новых к старым
+     */
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemCommentDto(c.item.id, c.id, c.text, a.name, c.created) " +
+            "FROM Comment AS c JOIN c.author AS a " +
+            "WHERE c.item.id IN :itemIds " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<ItemCommentDto> findAllByItemIdIn(Pageable pageable, @Param("itemIds") Collection<Long> itemIds);
+
+    /**
+     * Последние limit Комментариев каждой Вещи вместе с именами авторов одним запросом, от новых к старым
+     *
+     * @param itemIds идентификаторы Вещей
+     * @param limit   наибольшее количество Комментариев одной Вещи
+     * @return коллекцию ItemCommentDto
+     */
+    default List<ItemCommentDto> findLatestByItemIdIn(Collection<Long> itemIds, int limit) {
+        return findLatestRowsByItemIdIn(itemIds, limit).stream()
+                .map(row -> new ItemCommentDto(
+                        ((Number) row[0]).longValue(),
+                        ((Number) row[1]).longValue(),
+                        (String) row[2],
+                        (String) row[3],
+                        ((Timestamp) row[4]).toLocalDateTime()))
+                .collect(Collectors.toList());
+    }
+
+    /*
+     * Номер Комментария внутри Вещи считается оконной функцией, поэтому ограничение действует
+     * на каждую Вещь отдельно, а не на всю выборку
+     */
+    @Query(value = "SELECT item_id, comment_id, text, author_name, created FROM (" +
+            "SELECT c.item_id, c.comment_id, c.text, a.name AS author_name, c.created, " +
+            "ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.created DESC, c.comment_id DESC) AS rn " +
+            "FROM comments AS c JOIN users AS a ON a.user_id = c.author_id " +
+            "WHERE c.item_id IN :itemIds) AS ranked " +
+            "WHERE rn <= :limit " +
+            "ORDER BY created DESC, comment_id DESC", nativeQuery = true)
+    List<Object[]> findLatestRowsByItemIdIn(@Param("itemIds") Collection<Long> itemIds, @Param("limit") int limit);
 }
\ No newline at end of file
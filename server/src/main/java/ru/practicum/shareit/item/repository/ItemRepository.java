@@ -3,21 +3,107 @@ package ru.practicum.shareit.item.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemSearchDto;
+import ru.practicum.shareit.item.dto.ItemViewDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemDataForRequestDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends PagingAndSortingRepository<Item, Long> {
-    List<Item> findAllByOwnerIdOrderByIdAsc(Pageable pageable, Long ownerId);
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemViewDto(" +
+            "i.id, i.name, i.description, i.available, i.request.id, i.owner.id) " +
+            "FROM Item AS i " +
+            "WHERE i.owner.id = :ownerId AND i.id > :afterId " +
+            "ORDER BY i.id")
+    List<ItemViewDto> findAllByOwnerIdAndIdGreaterThan(Pageable pageable, @Param("ownerId") Long ownerId,
+                                                       @Param("afterId") Long afterId);
 
-    List<Item> findAllByNameOrDescriptionContainingIgnoreCaseAndAvailableTrue(Pageable pageable,
-                                                                              String name,
-                                                                              String description);
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemViewDto(" +
+            "i.id, i.name, i.description, i.available, i.request.id, i.owner.id) " +
+            "FROM Item AS i " +
+            "WHERE i.id = :itemId")
+    Optional<ItemViewDto> findViewById(@Param("itemId") Long itemId);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemViewDto(" +
+            "i.id, i.name, i.description, i.available, i.request.id, i.owner.id) " +
+            "FROM Item AS i " +
+            "WHERE i.id IN :itemIds")
+    List<ItemViewDto> findAllViewsByIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    /**
+     * Поиск доступных Вещей, в названии или описании которых есть подстрока text без учёта регистра
+     *
+     * @param pageable пагинация
+     * @param text     подстрока
+     * @return коллекцию ItemViewDto по возрастанию идентификатора
+     */
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemViewDto(" +
+            "i.id, i.name, i.description, i.available, i.request.id, i.owner.id) " +
+            "FROM Item AS i " +
+            "WHERE i.available = true " +
+            "AND (UPPER(i.name) LIKE UPPER(CONCAT('%', :text, '%')) " +
+            "OR UPPER(i.description) LIKE UPPER(CONCAT('%', :text, '%'))) " +
+            "ORDER BY i.id")
+    List<ItemViewDto> findAllAvailableByText(Pageable pageable, @Param("text") String text);
+
+    /**
+     * Полнотекстовый поиск доступных Вещей в PostgreSQL по столбцу search_vector
+     * со словарём russian, упорядоченный по ts_rank
+     *
+     * @param text   запрос в синтаксисе websearch_to_tsquery
+     * @param limit  размер страницы
+     * @param offset количество пропускаемых результатов
+     * @return идентификаторы Вещей в порядке релевантности
+     */
+    @Query(value = "SELECT i.item_id FROM items AS i, websearch_to_tsquery('russian', :text) AS query " +
+            "WHERE i.is_available AND i.search_vector @@ query " +
+            "ORDER BY ts_rank(i.search_vector, query) DESC, i.item_id " +
+            "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Number> findIdsAvailableByFullTextPostgres(@Param("text") String text,
+                                                    @Param("limit") int limit,
+                                                    @Param("offset") long offset);
+
+    /**
+     * Полнотекстовый поиск доступных Вещей встроенным движком H2. Слова запроса совпадают
+     * только целиком, оценка у всех совпадений одинакова.
+     *
+     * @param text   слова запроса
+     * @param limit  размер страницы
+     * @param offset количество пропускаемых результатов
+     * @return идентификаторы Вещей в порядке релевантности
+     */
+    @Query(value = "SELECT i.item_id FROM items AS i " +
+            "JOIN FT_SEARCH_DATA(:text, 0, 0) AS ft ON i.item_id = CAST(ARRAY_GET(ft.KEYS, 1) AS BIGINT) " +
+            "WHERE ft.\"TABLE\" = 'ITEMS' AND i.is_available " +
+            "ORDER BY ft.SCORE DESC, i.item_id " +
+            "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Number> findIdsAvailableByFullTextH2(@Param("text") String text,
+                                              @Param("limit") int limit,
+                                              @Param("offset") long offset);
 
     Boolean existsItemByOwnerId(Long ownerId);
 
-    @Query("SELECT i.id FROM Item AS i " +
-            "JOIN User As u ON i.owner.id=u.id " +
-            "WHERE i.owner.id = ?1")
-    List<Long> findAllItemIdByOwnerId(Long ownerId);
+    /**
+     * Возвращает данные доступных Вещей для поискового индекса постранично по возрастанию идентификатора
+     *
+     * @param pageable размер порции
+     * @param afterId  идентификатор, после которого начинается порция
+     * @return коллекцию ItemSearchDto
+     */
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemSearchDto(i.id, i.name, i.description) " +
+            "FROM Item AS i " +
+            "WHERE i.available = true AND i.id > :afterId " +
+            "ORDER BY i.id")
+    List<ItemSearchDto> findSearchDataByIdGreaterThan(Pageable pageable, @Param("afterId") Long afterId);
+
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemDataForRequestDto(" +
+            "i.id, i.name, i.description, i.available, i.request.id) " +
+            "FROM Item AS i " +
+            "WHERE i.request.id IN :requestIds " +
+            "ORDER BY i.id")
+    List<ItemDataForRequestDto> findAllDataByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
 }
\ No newline at end of file
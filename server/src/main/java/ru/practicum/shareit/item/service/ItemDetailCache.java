@@ -0,0 +1,168 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.CommentDtoResponse;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Кэш ответов GET /items/{itemId}, ограниченный по размеру (Caffeine, вытеснение W-TinyLFU).
+ * Отдельно хранятся общая для всех часть ответа — поля Вещи, её владелец и первые Комментарии —
+ * и видимые только владельцу последнее и следующее бронирования. Записи удаляются после фиксации
+ * транзакций, которые их меняют. Срез бронирований устаревает сам, когда наступает начало
+ * следующего бронирования, и тогда загружается заново.
+ */
+@Component
+public class ItemDetailCache {
+    /**
+     * Сколько первых Комментариев хранится вместе с Вещью; страницы дальше читаются из базы
+     */
+    public static final int CACHED_COMMENTS = 50;
+
+    private final Cache<Long, Detail> details;
+    private final Cache<Long, BookingSlice> bookings;
+
+    @Autowired
+    public ItemDetailCache(@Value("${shareit.item.cache.maximum-size:10000}") long maximumSize,
+                           MeterRegistry registry) {
+        details = Caffeine.newBuilder().maximumSize(maximumSize).recordStats().build();
+        bookings = Caffeine.newBuilder().maximumSize(maximumSize).recordStats().build();
+        CaffeineCacheMetrics.monitor(registry, details, "itemDetails");
+        CaffeineCacheMetrics.monitor(registry, bookings, "itemBookings");
+    }
+
+    /**
+     * Возвращает общую часть ответа, загружая её при отсутствии в кэше
+     *
+     * @param itemId идентификатор Вещи
+     * @param loader загрузка из базы; исключение загрузки передаётся вызывающему
+     * @return Detail
+     */
+    public Detail getDetail(Long itemId, Function<Long, Detail> loader) {
+        return details.get(itemId, loader);
+    }
+
+    /**
+     * Возвращает последнее и следующее бронирования Вещи на момент now
+     *
+     * @param itemId идентификатор Вещи
+     * @param now    текущий момент
+     * @param loader загрузка из базы на момент now
+     * @return BookingSlice
+     */
+    public BookingSlice getBookings(Long itemId, LocalDateTime now, Function<Long, BookingSlice> loader) {
+        BookingSlice slice = bookings.get(itemId, loader);
+        if (slice.isStale(now)) {
+            bookings.asMap().remove(itemId, slice);
+            slice = bookings.get(itemId, loader);
+        }
+        return slice;
+    }
+
+    /**
+     * Удаляет общую часть ответа после фиксации текущей транзакции
+     *
+     * @param itemId идентификатор Вещи
+     */
+    public void evictDetail(Long itemId) {
+        afterCommit(() -> details.invalidate(itemId));
+    }
+
+    /**
+     * Удаляет общие части ответов всех Вещей после фиксации текущей транзакции,
+     * например когда меняется имя автора Комментариев
+     */
+    public void evictAllDetails() {
+        afterCommit(details::invalidateAll);
+    }
+
+    /**
+     * Удаляет срез бронирований Вещи после фиксации текущей транзакции
+     *
+     * @param itemId идентификатор Вещи
+     */
+    public void evictBookings(Long itemId) {
+        afterCommit(() -> bookings.invalidate(itemId));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Общая для всех Пользователей часть ответа
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Detail {
+        private final Long ownerId;
+        private final ItemDtoResponse item;
+        /**
+         * Первые Комментарии от новых к старым, не больше CACHED_COMMENTS
+         */
+        private final List<CommentDtoResponse> comments;
+
+        /**
+         * Возвращает новый ответ, который можно дополнять, не меняя запись кэша
+         */
+        public ItemDtoResponse toResponse() {
+            return ItemDtoResponse.builder()
+                    .id(item.getId())
+                    .name(item.getName())
+                    .description(item.getDescription())
+                    .available(item.getAvailable())
+                    .requestId(item.getRequestId())
+                    .build();
+        }
+
+        /**
+         * Возвращает страницу Комментариев из кэша или null, если она выходит за сохранённые Комментарии
+         */
+        public List<CommentDtoResponse> comments(long offset, int size) {
+            boolean complete = comments.size() < CACHED_COMMENTS;
+            if (!complete && offset + size > comments.size()) {
+                return null;
+            }
+            int from = (int) Math.min(offset, comments.size());
+            return new ArrayList<>(comments.subList(from, Math.min(from + size, comments.size())));
+        }
+    }
+
+    /**
+     * Последнее и следующее подтверждённые бронирования Вещи
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class BookingSlice {
+        private final ItemBookingDto last;
+        private final ItemBookingDto next;
+
+        boolean isStale(LocalDateTime now) {
+            return next != null && !next.getStart().isAfter(now);
+        }
+    }
+}
\ No newline at end of file
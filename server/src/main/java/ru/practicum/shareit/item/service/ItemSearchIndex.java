@@ -0,0 +1,347 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.common.LongPostingList;
+import ru.practicum.shareit.item.dto.ItemSearchDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Инвертированный индекс доступных для бронирования Вещей по словам названия и описания.
+ * Слова приводятся к нижнему регистру, каждое слово запроса совпадает со словами Вещи, которые
+ * с него начинаются, и Вещь находится, только если совпали все слова запроса. Вещи ранжируются
+ * по сумме весов совпадений: совпадение в названии важнее совпадения в описании, а совпадение слова
+ * целиком важнее совпадения по началу слова; при равном весе Вещи упорядочены по идентификатору.
+ * Индекс загружается из базы в фоне после вызова start и обновляется после фиксации транзакций,
+ * в которых Вещи создаются или изменяются. Пока индекс не загружен, search возвращает пустой Optional.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ItemSearchIndex {
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final int NAME_EXACT = 4;
+    private static final int NAME_PREFIX = 3;
+    private static final int DESCRIPTION_EXACT = 2;
+    private static final int DESCRIPTION_PREFIX = 1;
+    private static final int MAX_WEIGHT = NAME_EXACT;
+    private static final int WEIGHT_BITS = 3;
+    private static final long WEIGHT_MASK = (1L << WEIGHT_BITS) - 1;
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ItemRepository items;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, LongPostingList> nameTerms = new TreeMap<>();
+    private final NavigableMap<String, LongPostingList> descriptionTerms = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Set<Long> changedWhileLoading = new HashSet<>();
+    private volatile boolean ready;
+
+    /**
+     * Запускает загрузку индекса из базы в фоновом потоке
+     */
+    public void start() {
+        Thread loader = new Thread(this::load, "item-search-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Обновляет Вещь в индексе после фиксации транзакции, в которой она сохранена.
+     * Недоступная для бронирования Вещь удаляется из индекса.
+     *
+     * @param item сохранённая Вещь
+     */
+    public void index(Item item) {
+        long id = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    index(id, name, description, available);
+                }
+            });
+        } else {
+            index(id, name, description, available);
+        }
+    }
+
+    /**
+     * Ищет доступные Вещи по тексту
+     *
+     * @param text   текст запроса
+     * @param offset количество пропускаемых результатов
+     * @param limit  наибольшее количество результатов
+     * @return идентификаторы найденных Вещей в порядке релевантности или пустой Optional,
+     * если индекс ещё не загружен
+     */
+    public Optional<List<Long>> search(String text, long offset, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        String[] terms = tokenize(text);
+        if (terms.length == 0) {
+            return Optional.of(List.of());
+        }
+        long[] ids = null;
+        int[] scores = null;
+        lock.readLock().lock();
+        try {
+            for (String term : terms) {
+                long[] matches = match(term);
+                if (ids == null) {
+                    ids = new long[matches.length];
+                    scores = new int[matches.length];
+                    int size = 0;
+                    for (long match : matches) {
+                        size = merge(ids, scores, size, match);
+                    }
+                    ids = Arrays.copyOf(ids, size);
+                    scores = Arrays.copyOf(scores, size);
+                } else {
+                    int size = intersect(ids, scores, matches);
+                    ids = Arrays.copyOf(ids, size);
+                    scores = Arrays.copyOf(scores, size);
+                }
+                if (ids.length == 0) {
+                    return Optional.of(List.of());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Optional.of(page(ids, scores, terms.length * MAX_WEIGHT, offset, limit));
+    }
+
+    private void load() {
+        long afterId = 0;
+        List<ItemSearchDto> batch;
+        try {
+            do {
+                batch = items.findSearchDataByIdGreaterThan(PageRequest.of(0, LOAD_BATCH_SIZE), afterId);
+                lock.writeLock().lock();
+                try {
+                    for (ItemSearchDto item : batch) {
+                        if (!changedWhileLoading.contains(item.getId())) {
+                            put(item.getId(), item.getName(), item.getDescription());
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+            lock.writeLock().lock();
+            try {
+                changedWhileLoading.clear();
+                ready = true;
+                log.info("Поисковый индекс загружен: {} вещей, {} слов в названиях, {} слов в описаниях",
+                        documents.size(), nameTerms.size(), descriptionTerms.size());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (RuntimeException exception) {
+            log.error("Не удалось загрузить поисковый индекс, поиск выполняется запросом к базе", exception);
+        }
+    }
+
+    private void index(long id, String name, String description, boolean available) {
+        lock.writeLock().lock();
+        try {
+            remove(id);
+            if (available) {
+                put(id, name, description);
+            }
+            if (!ready) {
+                changedWhileLoading.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(long id, String name, String description) {
+        Document document = new Document(add(nameTerms, id, tokenize(name)),
+                add(descriptionTerms, id, tokenize(description)));
+        documents.put(id, document);
+    }
+
+    private void remove(long id) {
+        Document document = documents.remove(id);
+        if (document != null) {
+            remove(nameTerms, id, document.nameTerms);
+            remove(descriptionTerms, id, document.descriptionTerms);
+        }
+    }
+
+    private static String[] add(NavigableMap<String, LongPostingList> dictionary, long id, String[] terms) {
+        for (int i = 0; i < terms.length; i++) {
+            Map.Entry<String, LongPostingList> entry = dictionary.ceilingEntry(terms[i]);
+            if (entry != null && entry.getKey().equals(terms[i])) {
+                // Документ ссылается на строку словаря, а не хранит свою копию слова
+                terms[i] = entry.getKey();
+                entry.getValue().add(id);
+            } else {
+                LongPostingList postings = new LongPostingList();
+                postings.add(id);
+                dictionary.put(terms[i], postings);
+            }
+        }
+        return terms;
+    }
+
+    private static void remove(NavigableMap<String, LongPostingList> dictionary, long id, String[] terms) {
+        for (String term : terms) {
+            LongPostingList postings = dictionary.get(term);
+            if (postings != null && postings.remove(id) && postings.isEmpty()) {
+                dictionary.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Возвращает вхождения слова запроса в виде id << WEIGHT_BITS | weight, отсортированные
+     * по возрастанию, поэтому вхождения одной Вещи идут подряд, а наибольший вес — последним
+     */
+    private long[] match(String term) {
+        Map<String, LongPostingList> names = prefixed(nameTerms, term);
+        Map<String, LongPostingList> descriptions = prefixed(descriptionTerms, term);
+        int size = 0;
+        for (LongPostingList postings : names.values()) {
+            size += postings.size();
+        }
+        for (LongPostingList postings : descriptions.values()) {
+            size += postings.size();
+        }
+        long[] matches = new long[size];
+        int position = fill(matches, 0, names, term, NAME_EXACT, NAME_PREFIX);
+        fill(matches, position, descriptions, term, DESCRIPTION_EXACT, DESCRIPTION_PREFIX);
+        Arrays.sort(matches);
+        return matches;
+    }
+
+    private static Map<String, LongPostingList> prefixed(NavigableMap<String, LongPostingList> dictionary,
+                                                         String prefix) {
+        return dictionary.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static int fill(long[] matches, int position, Map<String, LongPostingList> dictionary, String term,
+                            int exactWeight, int prefixWeight) {
+        for (Map.Entry<String, LongPostingList> entry : dictionary.entrySet()) {
+            long weight = entry.getKey().equals(term) ? exactWeight : prefixWeight;
+            LongPostingList postings = entry.getValue();
+            for (int i = 0; i < postings.size(); i++) {
+                matches[position++] = postings.get(i) << WEIGHT_BITS | weight;
+            }
+        }
+        return position;
+    }
+
+    private static int merge(long[] ids, int[] scores, int size, long match) {
+        long id = match >>> WEIGHT_BITS;
+        int weight = (int) (match & WEIGHT_MASK);
+        if (size > 0 && ids[size - 1] == id) {
+            scores[size - 1] = weight;
+            return size;
+        }
+        ids[size] = id;
+        scores[size] = weight;
+        return size + 1;
+    }
+
+    /**
+     * Оставляет в ids только Вещи, для которых есть вхождения в matches, и прибавляет к их оценке
+     * наибольший вес вхождения
+     */
+    private static int intersect(long[] ids, int[] scores, long[] matches) {
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < ids.length && j < matches.length) {
+            long id = matches[j] >>> WEIGHT_BITS;
+            if (ids[i] < id) {
+                i++;
+            } else if (ids[i] > id) {
+                j++;
+            } else {
+                while (j + 1 < matches.length && matches[j + 1] >>> WEIGHT_BITS == id) {
+                    j++;
+                }
+                ids[size] = id;
+                scores[size] = scores[i] + (int) (matches[j] & WEIGHT_MASK);
+                size++;
+                i++;
+                j++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Возвращает страницу результатов по убыванию оценки, при равной оценке — по возрастанию
+     * идентификатора. ids уже отсортированы по возрастанию, поэтому достаточно пройти их
+     * для каждого значения оценки, не превышающего maxScore.
+     */
+    private static List<Long> page(long[] ids, int[] scores, int maxScore, long offset, int limit) {
+        List<Long> page = new ArrayList<>(Math.min(limit, ids.length));
+        long skipped = 0;
+        for (int score = maxScore; score > 0 && page.size() < limit; score--) {
+            for (int i = 0; i < ids.length && page.size() < limit; i++) {
+                if (scores[i] == score && skipped++ >= offset) {
+                    page.add(ids[i]);
+                }
+            }
+        }
+        return page;
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        return Arrays.stream(SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private static class Document {
+        private final String[] nameTerms;
+        private final String[] descriptionTerms;
+
+        Document(String[] nameTerms, String[] descriptionTerms) {
+            this.nameTerms = nameTerms;
+            this.descriptionTerms = descriptionTerms;
+        }
+    }
+}
\ No newline at end of file
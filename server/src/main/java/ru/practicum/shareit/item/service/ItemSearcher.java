@@ -0,0 +1,99 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemViewDto;
+import ru.practicum.shareit.item.enums.SearchMode;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск доступных Вещей по тексту способом, заданным свойством shareit.item.search.mode.
+ * В режиме FULL_TEXT используется полнотекстовый индекс базы: столбец tsvector с GIN-индексом
+ * в PostgreSQL или встроенный движок H2, их создают миграции из db/vendor/{vendor}.
+ */
+@Slf4j
+@Component
+public class ItemSearcher {
+    private final ItemRepository items;
+    private final ItemSearchIndex searchIndex;
+    private final SearchMode mode;
+    private final DatabaseDriver database;
+
+    @Autowired
+    public ItemSearcher(ItemRepository items,
+                        ItemSearchIndex searchIndex,
+                        @Value("${shareit.item.search.mode:INDEX}") SearchMode mode,
+                        @Value("${spring.datasource.url}") String datasourceUrl) {
+        this.items = items;
+        this.searchIndex = searchIndex;
+        this.mode = mode;
+        this.database = DatabaseDriver.fromJdbcUrl(datasourceUrl);
+        if (mode == SearchMode.FULL_TEXT && database != DatabaseDriver.POSTGRESQL && database != DatabaseDriver.H2) {
+            throw new IllegalStateException("Полнотекстовый поиск не поддерживается для базы " + database);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        log.info("Поиск вещей в режиме {}", mode);
+        if (mode == SearchMode.INDEX) {
+            searchIndex.start();
+        }
+    }
+
+    /**
+     * Обновляет Вещь в поисковом индексе, если поиск выполняется по нему
+     *
+     * @param item сохранённая Вещь
+     */
+    public void index(Item item) {
+        if (mode == SearchMode.INDEX) {
+            searchIndex.index(item);
+        }
+    }
+
+    /**
+     * Ищет доступные Вещи по тексту
+     *
+     * @param pageable пагинация
+     * @param text     текст запроса
+     * @return коллекцию ItemViewDto в порядке релевантности
+     */
+    public List<ItemViewDto> search(Pageable pageable, String text) {
+        switch (mode) {
+            case INDEX:
+                Optional<List<Long>> found = searchIndex.search(text, pageable.getOffset(), pageable.getPageSize());
+                return found.isPresent() ? findAllInOrder(found.get()) : items.findAllAvailableByText(pageable, text);
+            case FULL_TEXT:
+                List<Number> ids = database == DatabaseDriver.POSTGRESQL
+                        ? items.findIdsAvailableByFullTextPostgres(text, pageable.getPageSize(), pageable.getOffset())
+                        : items.findIdsAvailableByFullTextH2(text, pageable.getPageSize(), pageable.getOffset());
+                return findAllInOrder(ids.stream().map(Number::longValue).collect(Collectors.toList()));
+            default:
+                return items.findAllAvailableByText(pageable, text);
+        }
+    }
+
+    private List<ItemViewDto> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ItemViewDto> found = new HashMap<>();
+        items.findAllViewsByIdIn(ids).forEach(item -> found.put(item.getId(), item));
+        return ids.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+}
\ No newline at end of file
@@ -1,12 +1,14 @@
 package ru.practicum.shareit.item.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.common.PageCursor;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoResponse;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.dto.ItemDtoUpdate;
 import ru.practicum.shareit.item.dto.ItemListDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionListDto;
 
 public interface ItemService {
     /**
@@ -31,20 +33,22 @@ public interface ItemService {
     /**
      * Возвращает ItemDtoResponse Вещи Пользователя
      *
-     * @param itemId идентификатор Вещи
-     * @param userId идентификатор Пользователя владельца Вещи
+     * @param itemId           идентификатор Вещи
+     * @param userId           идентификатор Пользователя владельца Вещи
+     * @param commentsPageable пагинация Комментариев, от новых к старым
      * @return ItemDtoResponse
      */
-    ItemDtoResponse getItemByItemId(Long userId, Long itemId);
+    ItemDtoResponse getItemByItemId(Long userId, Long itemId, Pageable commentsPageable);
 
     /**
      * Возвращает коллекцию Вещей Пользователя
      *
      * @param pageable пагинация
+     * @param cursor   позиция, после которой начинается страница, или null для первой страницы
      * @param userId   идентификатор Пользователя владельца Вещи
      * @return ItemListDto
      */
-    ItemListDto getPersonalItems(Pageable pageable, Long userId);
+    ItemListDto getPersonalItems(Pageable pageable, PageCursor cursor, Long userId);
 
     /**
      * Поиск Вещей Пользователя
@@ -55,6 +59,15 @@ public interface ItemService {
      */
     ItemListDto getFoundItems(Pageable pageable, String text);
 
+    /**
+     * Подсказки для ввода по словам названий доступных Вещей
+     *
+     * @param prefix введённый текст
+     * @param size   наибольшее количество подсказок
+     * @return ItemSuggestionListDto
+     */
+    ItemSuggestionListDto getSuggestions(String prefix, Integer size);
+
     /**
      * Добавление Комментария
      *
@@ -6,8 +6,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.common.PageCursor;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
@@ -21,20 +24,33 @@ import ru.practicum.shareit.user.model.User;
 
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class ItemServiceImpl implements ItemService {
+    /**
+     * Сколько последних Комментариев каждой Вещи отдаётся в списках и после изменения Вещи,
+     * столько же, сколько на первой странице GET /items/{itemId} по умолчанию
+     */
+    static final int LIST_COMMENTS = 10;
+
     private final ItemRepository items;
     private final UserRepository users;
     private final BookingRepository bookings;
     private final CommentRepository comments;
     private final ItemMapper mapper;
     private final ItemRequestRepository itemRequests;
+    private final ItemSearcher searcher;
+    private final ItemSuggestIndex suggestIndex;
+    private final ItemDetailCache detailCache;
+    private final Clock clock;
 
     @Override
     @Transactional
@@ -49,7 +65,10 @@ public class ItemServiceImpl implements ItemService {
         }
         newItem.setOwner(users.findById(userId).orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Пользователя с id=%s нет", userId))));
-        return mapper.mapToItemDtoResponse(items.save(newItem));
+        Item saved = items.save(newItem);
+        searcher.index(saved);
+        suggestIndex.index(saved);
+        return mapper.mapToItemDtoResponse(saved);
     }
 
     @Override
@@ -61,47 +80,55 @@ public class ItemServiceImpl implements ItemService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND,
                     String.format("Предмет с id=%s пользователю с id=%s не пренадлежит", itemId, userId));
         }
-        return mapper.mapToItemDtoResponse(items.save(mapper.mapToItemFromItemDtoUpdate(item, updateItem)));
+        Item saved = items.save(mapper.mapToItemFromItemDtoUpdate(item, updateItem));
+        searcher.index(saved);
+        suggestIndex.index(saved);
+        detailCache.evictDetail(itemId);
+        ItemDtoResponse itemDtoResponse = mapper.mapToItemDtoResponse(saved);
+        setComments(itemDtoResponse, OffsetPageRequest.of(0, LIST_COMMENTS));
+        return itemDtoResponse;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public ItemDtoResponse getItemByItemId(Long userId, Long itemId) {
-        Item item = items.findById(itemId).orElseThrow(
-                () -> new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Предмета с id=%s нет", itemId)));
-        ItemDtoResponse itemDtoResponse = mapper.mapToItemDtoResponse(item);
-        if (item.getOwner().getId().equals(userId)) {
-            itemDtoResponse.setLastBooking(mapper
-                    .mapToBookingShortDto(bookings
-                            .findFirstByItemIdAndStartBeforeAndStatusOrderByEndDesc(
-                                    itemId, LocalDateTime.now(), Status.APPROVED).orElse(null)
-                    ));
-            itemDtoResponse.setNextBooking(mapper.mapToBookingShortDto(bookings
-                    .findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(
-                            itemId, LocalDateTime.now(), Status.APPROVED).orElse(null)
-            ));
-            return itemDtoResponse;
+    public ItemDtoResponse getItemByItemId(Long userId, Long itemId, Pageable commentsPageable) {
+        ItemDetailCache.Detail detail = detailCache.getDetail(itemId, this::loadDetail);
+        ItemDtoResponse itemDtoResponse = detail.toResponse();
+        List<CommentDtoResponse> cachedComments = detail.comments(commentsPageable.getOffset(),
+                commentsPageable.getPageSize());
+        if (cachedComments != null) {
+            itemDtoResponse.setComments(cachedComments);
+        } else {
+            setComments(itemDtoResponse, commentsPageable);
+        }
+        if (detail.getOwnerId().equals(userId)) {
+            LocalDateTime now = LocalDateTime.now(clock);
+            ItemDetailCache.BookingSlice slice = detailCache.getBookings(itemId, now, id -> loadBookings(id, now));
+            if (slice.getLast() != null) {
+                itemDtoResponse.setLastBooking(mapper.mapToBookingShortDto(slice.getLast()));
+            }
+            if (slice.getNext() != null) {
+                itemDtoResponse.setNextBooking(mapper.mapToBookingShortDto(slice.getNext()));
+            }
         }
         return itemDtoResponse;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public ItemListDto getPersonalItems(Pageable pageable, Long userId) {
+    public ItemListDto getPersonalItems(Pageable pageable, PageCursor cursor, Long userId) {
         if (!users.existsById(userId)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Пользователя с id=%s не существует", userId));
         }
-        List<ItemDtoResponse> personalItems = items.findAllByOwnerIdOrderByIdAsc(pageable, userId).stream()
+        List<ItemDtoResponse> personalItems = items.findAllByOwnerIdAndIdGreaterThan(
+                        pageable, userId, PageCursor.orFirstId(cursor).getId()).stream()
                 .map(mapper::mapToItemDtoResponse).collect(Collectors.toList());
-        for (ItemDtoResponse item : personalItems) {
-            item.setLastBooking(mapper.mapToBookingShortDto(bookings.findFirstByItemIdAndStartBeforeAndStatusOrderByEndDesc(
-                    item.getId(), LocalDateTime.now(), Status.APPROVED).orElse(null)));
-            item.setNextBooking(mapper.mapToBookingShortDto(bookings
-                    .findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(
-                            item.getId(), LocalDateTime.now(), Status.APPROVED).orElse(null)
-            ));
-        }
-        return ItemListDto.builder().items(personalItems).build();
+        setLatestComments(personalItems);
+        setLastAndNextBookings(personalItems);
+        String nextCursor = personalItems.size() == pageable.getPageSize()
+                ? PageCursor.of(personalItems.get(personalItems.size() - 1).getId()).encode()
+                : null;
+        return ItemListDto.builder().items(personalItems).nextCursor(nextCursor).build();
     }
 
     @Override
@@ -110,11 +137,17 @@ public class ItemServiceImpl implements ItemService {
         if (text.isBlank()) {
             return ItemListDto.builder().items(new ArrayList<>()).build();
         }
-        return ItemListDto.builder()
-                .items(items.findAllByNameOrDescriptionContainingIgnoreCaseAndAvailableTrue(pageable, text, text).stream()
-                        .map(mapper::mapToItemDtoResponse)
-                        .collect(Collectors
-                                .toList()))
+        List<ItemDtoResponse> foundItems = searcher.search(pageable, text).stream()
+                .map(mapper::mapToItemDtoResponse)
+                .collect(Collectors.toList());
+        setLatestComments(foundItems);
+        return ItemListDto.builder().items(foundItems).build();
+    }
+
+    @Override
+    public ItemSuggestionListDto getSuggestions(String prefix, Integer size) {
+        return ItemSuggestionListDto.builder()
+                .suggestions(suggestIndex.suggest(prefix, size))
                 .build();
     }
 
@@ -122,7 +155,7 @@ public class ItemServiceImpl implements ItemService {
     @Transactional
     public CommentDtoResponse addComment(Long itemId, Long userId, CommentDto commentDto) {
         if (!bookings.existsBookingByItemIdAndBookerIdAndStatusAndEndIsBefore(itemId, userId,
-                Status.APPROVED, LocalDateTime.now())) {
+                Status.APPROVED, LocalDateTime.now(clock))) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     String.format("У пользователя с id=%s не было ни одной брони на предмет с id=%s", userId, itemId));
         } else {
@@ -131,8 +164,82 @@ public class ItemServiceImpl implements ItemService {
             Comment comment = mapper.mapToCommentFromCommentDto(commentDto);
             comment.setItem(item);
             comment.setAuthor(author);
-            comment.setCreated(LocalDateTime.now());
-            return mapper.mapToCommentDtoResponseFromComment(comments.save(comment));
+            comment.setCreated(LocalDateTime.now(clock));
+            CommentDtoResponse saved = mapper.mapToCommentDtoResponseFromComment(comments.save(comment));
+            detailCache.evictDetail(itemId);
+            return saved;
+        }
+    }
+
+    private ItemDetailCache.Detail loadDetail(Long itemId) {
+        ItemViewDto item = items.findViewById(itemId).orElseThrow(
+                () -> new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Предмета с id=%s нет", itemId)));
+        List<CommentDtoResponse> firstComments = comments.findAllByItemIdIn(
+                        OffsetPageRequest.of(0, ItemDetailCache.CACHED_COMMENTS), List.of(itemId)).stream()
+                .map(mapper::mapToCommentDtoResponse)
+                .collect(Collectors.toList());
+        return new ItemDetailCache.Detail(item.getOwnerId(), mapper.mapToItemDtoResponse(item), firstComments);
+    }
+
+    private ItemDetailCache.BookingSlice loadBookings(Long itemId, LocalDateTime now) {
+        ItemBookingDto last = null;
+        ItemBookingDto next = null;
+        for (ItemBookingDto booking : bookings.findLastAndNextBookingsByItemIds(List.of(itemId), now, Status.APPROVED)) {
+            if (booking.getStart().isBefore(now)) {
+                if (last == null) {
+                    last = booking;
+                }
+            } else if (next == null) {
+                next = booking;
+            }
+        }
+        return new ItemDetailCache.BookingSlice(last, next);
+    }
+
+    /**
+     * Заполняет страницу Комментариев одной Вещи вместе с именами авторов
+     */
+    private void setComments(ItemDtoResponse itemDtoResponse, Pageable pageable) {
+        attachComments(List.of(itemDtoResponse), comments.findAllByItemIdIn(pageable, List.of(itemDtoResponse.getId())));
+    }
+
+    /**
+     * Заполняет не больше LIST_COMMENTS последних Комментариев каждой Вещи списка одним запросом;
+     * остальные Комментарии читаются постранично через GET /items/{itemId}
+     */
+    private void setLatestComments(List<ItemDtoResponse> itemDtoResponses) {
+        if (itemDtoResponses.isEmpty()) {
+            return;
+        }
+        attachComments(itemDtoResponses, comments.findLatestByItemIdIn(
+                itemDtoResponses.stream().map(ItemDtoResponse::getId).collect(Collectors.toList()), LIST_COMMENTS));
+    }
+
+    private void attachComments(List<ItemDtoResponse> itemDtoResponses, List<ItemCommentDto> loaded) {
+        Map<Long, ItemDtoResponse> itemsById = itemDtoResponses.stream()
+                .collect(Collectors.toMap(ItemDtoResponse::getId, Function.identity()));
+        itemDtoResponses.forEach(item -> item.setComments(new ArrayList<>()));
+        for (ItemCommentDto comment : loaded) {
+            itemsById.get(comment.getItemId()).getComments().add(mapper.mapToCommentDtoResponse(comment));
+        }
+    }
+
+    private void setLastAndNextBookings(List<ItemDtoResponse> itemDtoResponses) {
+        if (itemDtoResponses.isEmpty()) {
+            return;
+        }
+        Map<Long, ItemDtoResponse> itemsById = itemDtoResponses.stream()
+                .collect(Collectors.toMap(ItemDtoResponse::getId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now(clock);
+        for (ItemBookingDto booking : bookings.findLastAndNextBookingsByItemIds(itemsById.keySet(), now, Status.APPROVED)) {
+            ItemDtoResponse item = itemsById.get(booking.getItemId());
+            if (booking.getStart().isBefore(now)) {
+                if (item.getLastBooking() == null) {
+                    item.setLastBooking(mapper.mapToBookingShortDto(booking));
+                }
+            } else if (item.getNextBooking() == null) {
+                item.setNextBooking(mapper.mapToBookingShortDto(booking));
+            }
         }
     }
 }
\ No newline at end of file
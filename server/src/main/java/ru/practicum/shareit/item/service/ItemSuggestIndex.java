@@ -0,0 +1,223 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.ItemBookingCountDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.WeightedRadixTrie;
+import ru.practicum.shareit.item.dto.ItemSearchDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Подсказки для ввода по словам названий доступных для бронирования Вещей. Слова хранятся
+ * в сжатом префиксном дереве, вес слова — суммарное количество бронирований Вещей, в названии
+ * которых оно встречается, поэтому первыми предлагаются слова из названий популярных Вещей.
+ * Индекс загружается из базы в фоне после запуска приложения и обновляется после фиксации
+ * транзакций, в которых Вещи сохраняются или бронируются. Пока индекс не загружен,
+ * подсказок нет.
+ * <p>
+ * Бронирования, зафиксированные до снимка счётчиков, уже учтены в нём, поэтому booked() учитывается
+ * только после снимка. Бронирование, зафиксированное во время самого запроса счётчиков, может
+ * не попасть в вес; на порядок подсказок это почти не влияет.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ItemSuggestIndex {
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ItemRepository items;
+    private final BookingRepository bookings;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final WeightedRadixTrie terms = new WeightedRadixTrie();
+    private final Map<Long, String[]> names = new HashMap<>();
+    private final Map<Long, Long> bookingCounts = new HashMap<>();
+    private final Set<Long> changedWhileLoading = new HashSet<>();
+    private boolean countsLoaded;
+    private volatile boolean ready;
+
+    /**
+     * Запускает загрузку индекса из базы в фоновом потоке
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread loader = new Thread(this::load, "item-suggest-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Обновляет слова названия Вещи после фиксации транзакции, в которой она сохранена.
+     * Слова недоступной для бронирования Вещи удаляются из индекса.
+     *
+     * @param item сохранённая Вещь
+     */
+    public void index(Item item) {
+        long id = item.getId();
+        String name = item.getName();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        afterCommit(() -> index(id, name, available));
+    }
+
+    /**
+     * Учитывает новое бронирование Вещи после фиксации транзакции, в которой оно создано
+     *
+     * @param itemId идентификатор забронированной Вещи
+     */
+    public void booked(Long itemId) {
+        afterCommit(() -> booked((long) itemId));
+    }
+
+    /**
+     * Возвращает самые популярные слова названий, начинающиеся с последнего слова префикса
+     *
+     * @param prefix введённый текст
+     * @param limit  наибольшее количество подсказок
+     * @return коллекцию ItemSuggestionDto по убыванию популярности
+     */
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        String[] words = ItemSearchIndex.tokenize(prefix);
+        if (!ready || words.length == 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return terms.top(words[words.length - 1], limit).stream()
+                    .map(entry -> new ItemSuggestionDto(entry.getKey(), entry.getWeight()))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void load() {
+        try {
+            List<ItemBookingCountDto> counts = bookings.countAllGroupByItemId();
+            lock.writeLock().lock();
+            try {
+                // Вещи, сохранённые во время загрузки, уже в дереве с нулевым весом
+                for (ItemBookingCountDto count : counts) {
+                    bookingCounts.put(count.getItemId(), count.getCount());
+                    addWeight(count.getItemId(), count.getCount());
+                }
+                countsLoaded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            long afterId = 0;
+            List<ItemSearchDto> batch;
+            do {
+                batch = items.findSearchDataByIdGreaterThan(PageRequest.of(0, LOAD_BATCH_SIZE), afterId);
+                lock.writeLock().lock();
+                try {
+                    for (ItemSearchDto item : batch) {
+                        if (!changedWhileLoading.contains(item.getId())) {
+                            put(item.getId(), item.getName());
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+            lock.writeLock().lock();
+            try {
+                changedWhileLoading.clear();
+                ready = true;
+                log.info("Индекс подсказок загружен: {} вещей, {} слов", names.size(), terms.size());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (RuntimeException exception) {
+            log.error("Не удалось загрузить индекс подсказок", exception);
+        }
+    }
+
+    private void index(long id, String name, boolean available) {
+        lock.writeLock().lock();
+        try {
+            remove(id);
+            if (available) {
+                put(id, name);
+            }
+            if (!ready) {
+                changedWhileLoading.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void booked(long id) {
+        lock.writeLock().lock();
+        try {
+            if (countsLoaded) {
+                bookingCounts.merge(id, 1L, Long::sum);
+                addWeight(id, 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addWeight(long id, long weight) {
+        String[] words = names.get(id);
+        if (words != null) {
+            for (String word : words) {
+                terms.update(word, 0, weight);
+            }
+        }
+    }
+
+    private void put(long id, String name) {
+        String[] words = ItemSearchIndex.tokenize(name);
+        long weight = bookingCounts.getOrDefault(id, 0L);
+        for (String word : words) {
+            terms.update(word, 1, weight);
+        }
+        names.put(id, words);
+    }
+
+    private void remove(long id) {
+        String[] words = names.remove(id);
+        if (words != null) {
+            long weight = bookingCounts.getOrDefault(id, 0L);
+            for (String word : words) {
+                terms.update(word, -1, -weight);
+            }
+        }
+    }
+}
\ No newline at end of file
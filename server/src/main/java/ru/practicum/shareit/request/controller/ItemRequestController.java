@@ -2,12 +2,12 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.common.PageCursor;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
@@ -33,25 +33,30 @@ public class ItemRequestController {
     public ResponseEntity<ItemRequestListDto> getPrivateRequests(
             @RequestHeader(userIdHeader) Long requesterId,
             @RequestParam(value = "from", defaultValue = "0") Integer from,
-            @RequestParam(value = "size", defaultValue = "10") Integer size) {
+            @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        ItemRequestListDto requestList = itemRequestService.getPrivateRequests(
+                OffsetPageRequest.of(pageCursor == null ? from : 0, size), pageCursor, requesterId);
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(itemRequestService
-                        .getPrivateRequests(PageRequest.of(from / size, size)
-                                .withSort(Sort.by("created").descending()), requesterId));
+                .headers(PageCursor.headers(requestList.getNextCursor()))
+                .body(requestList);
     }
 
     @GetMapping("all")
     public ResponseEntity<ItemRequestListDto> getOtherRequests(
             @RequestHeader(userIdHeader) Long requesterId,
             @RequestParam(value = "from", defaultValue = "0") Integer from,
-            @RequestParam(value = "size", defaultValue = "10") Integer size) {
+            @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        ItemRequestListDto requestList = itemRequestService.getOtherRequests(
+                OffsetPageRequest.of(pageCursor == null ? from : 0, size), pageCursor, requesterId);
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(itemRequestService
-                        .getOtherRequests(PageRequest.of(
-                                from / size, size, Sort.by(Sort.Direction.DESC, "created")),
-                        requesterId));
+                .headers(PageCursor.headers(requestList.getNextCursor()))
+                .body(requestList);
     }
 
     @GetMapping("{requestId}")
@@ -11,4 +11,8 @@ import java.util.List;
 public class ItemRequestListDto {
     @JsonValue
     private List<RequestDtoResponseWithMD> requests;
+    /**
+     * Курсор следующей страницы, передаётся клиенту в заголовке X-Next-Cursor
+     */
+    private String nextCursor;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка соединения Запроса с одним из ответов на него; поля ответа пусты, если ответов нет
+ */
+@Data
+@AllArgsConstructor
+public class ItemRequestRowDto {
+    private Long id;
+    private String description;
+    private LocalDateTime created;
+    private Long itemId;
+    private String itemName;
+    private String itemDescription;
+    private Boolean itemAvailable;
+}
\ No newline at end of file
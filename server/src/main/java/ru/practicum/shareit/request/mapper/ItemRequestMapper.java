@@ -9,8 +9,6 @@ import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 import ru.practicum.shareit.request.dto.RequestDtoResponseWithMD;
 import ru.practicum.shareit.request.model.ItemRequest;
 
-import java.util.List;
-
 @Mapper(componentModel = "spring")
 public interface ItemRequestMapper {
     ItemRequest mapToItemRequest(ItemRequestDto itemRequestDto);
@@ -22,7 +20,7 @@ public interface ItemRequestMapper {
 
     RequestDtoResponseWithMD mapToRequestDtoResponseWithMD(ItemRequest itemRequest);
 
-    List<RequestDtoResponseWithMD> mapToRequestDtoResponseWithMD(List<ItemRequest> itemRequests);
-
+    @Mapping(target = "items", ignore = true)
+    RequestDtoResponseWithMD mapToRequestDtoResponseWithoutItems(ItemRequestDtoResponse itemRequest);
 
 }
\ No newline at end of file
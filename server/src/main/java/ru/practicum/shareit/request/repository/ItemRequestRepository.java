@@ -1,13 +1,45 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
+import ru.practicum.shareit.request.dto.ItemRequestRowDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends PagingAndSortingRepository<ItemRequest, Long> {
-    List<ItemRequest> findAllByRequesterId(Pageable pageable, Long requesterId);
+    /**
+     * Возвращает Запрос вместе с ответами на него одним запросом, по строке на каждый ответ
+     *
+     * @param requestId идентификатор Запроса
+     * @return коллекцию ItemRequestRowDto, пустую, если Запроса нет
+     */
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemRequestRowDto(" +
+            "r.id, r.description, r.created, i.id, i.name, i.description, i.available) " +
+            "FROM ItemRequest AS r LEFT JOIN r.items AS i " +
+            "WHERE r.id = :requestId " +
+            "ORDER BY i.id")
+    List<ItemRequestRowDto> findRowsById(@Param("requestId") Long requestId);
 
-    List<ItemRequest> findAllByRequesterIdNot(Pageable pageable, Long requesterId);
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemRequestDtoResponse(r.id, r.description, r.created) " +
+            "FROM ItemRequest AS r " +
+            "WHERE r.requester.id = :requesterId " +
+            "AND (r.created < :cursorCreated OR (r.created = :cursorCreated AND r.id > :cursorId)) " +
+            "ORDER BY r.created DESC, r.id")
+    List<ItemRequestDtoResponse> findAllByRequesterId(Pageable pageable, @Param("requesterId") Long requesterId,
+                                                      @Param("cursorCreated") LocalDateTime cursorCreated,
+                                                      @Param("cursorId") Long cursorId);
+
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemRequestDtoResponse(r.id, r.description, r.created) " +
+            "FROM ItemRequest AS r " +
+            "WHERE r.requester.id <> :requesterId " +
+            "AND (r.created < :cursorCreated OR (r.created = :cursorCreated AND r.id > :cursorId)) " +
+            "ORDER BY r.created DESC, r.id")
+    List<ItemRequestDtoResponse> findAllByRequesterIdNot(Pageable pageable, @Param("requesterId") Long requesterId,
+                                                         @Param("cursorCreated") LocalDateTime cursorCreated,
+                                                         @Param("cursorId") Long cursorId);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.service;
 
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.common.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoResponse;
 import ru.practicum.shareit.request.dto.ItemRequestListDto;
@@ -9,9 +10,9 @@ import ru.practicum.shareit.request.dto.RequestDtoResponseWithMD;
 public interface ItemRequestService {
     ItemRequestDtoResponse createItemRequest(ItemRequestDto itemRequestDto, Long requesterId);
 
-    ItemRequestListDto getPrivateRequests(PageRequest pageRequest, Long requesterId);
+    ItemRequestListDto getPrivateRequests(Pageable pageable, PageCursor cursor, Long requesterId);
 
-    ItemRequestListDto getOtherRequests(PageRequest pageRequest, Long requesterId);
+    ItemRequestListDto getOtherRequests(Pageable pageable, PageCursor cursor, Long requesterId);
 
     RequestDtoResponseWithMD getItemRequest(Long userId, Long requestId);
 }
\ No newline at end of file
@@ -2,10 +2,13 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.common.PageCursor;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.*;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -14,15 +17,21 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository requests;
+    private final ItemRepository items;
     private final UserRepository users;
     private final ItemRequestMapper mapper;
 
     @Override
+    @Transactional
     public ItemRequestDtoResponse createItemRequest(ItemRequestDto itemRequestDto, Long requesterId) {
         User user = users.findById(requesterId).orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Пользователя с id=%s нет", requesterId)));
@@ -33,36 +42,77 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
-    public ItemRequestListDto getPrivateRequests(PageRequest pageRequest, Long requesterId) {
+    @Transactional(readOnly = true)
+    public ItemRequestListDto getPrivateRequests(Pageable pageable, PageCursor cursor, Long requesterId) {
         if (!users.existsById(requesterId)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Пользователя с id=%s нет", requesterId));
         }
-        return ItemRequestListDto.builder()
-                .requests(mapper.mapToRequestDtoResponseWithMD(requests.findAllByRequesterId(pageRequest, requesterId)
-                )).build();
+        PageCursor position = PageCursor.orLatest(cursor);
+        return toListDto(pageable, withItems(
+                requests.findAllByRequesterId(pageable, requesterId, position.getPosition(), position.getId())));
     }
 
     @Override
-    public ItemRequestListDto getOtherRequests(PageRequest pageRequest, Long requesterId) {
+    @Transactional(readOnly = true)
+    public ItemRequestListDto getOtherRequests(Pageable pageable, PageCursor cursor, Long requesterId) {
         if (!users.existsById(requesterId)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Пользователя с id=%s нет", requesterId));
         }
-        return ItemRequestListDto.builder()
-                .requests(mapper.mapToRequestDtoResponseWithMD(requests.findAllByRequesterIdNot(pageRequest, requesterId)
-                )).build();
+        PageCursor position = PageCursor.orLatest(cursor);
+        return toListDto(pageable, withItems(
+                requests.findAllByRequesterIdNot(pageable, requesterId, position.getPosition(), position.getId())));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public RequestDtoResponseWithMD getItemRequest(Long userId, Long requestId) {
         if (!users.existsById(userId)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Пользователя с id=%s нет", userId));
         }
-        return mapper.mapToRequestDtoResponseWithMD(
-                requests.findById(requestId)
-                        .orElseThrow(
-                                () -> new ResponseStatusException(HttpStatus.NOT_FOUND,
-                                        String.format("Запроса с id=%s нет", requestId)
-                                )
-                        ));
+        List<ItemRequestRowDto> rows = requests.findRowsById(requestId);
+        if (rows.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Запроса с id=%s нет", requestId));
+        }
+        ItemRequestRowDto first = rows.get(0);
+        RequestDtoResponseWithMD request = RequestDtoResponseWithMD.builder()
+                .id(first.getId())
+                .description(first.getDescription())
+                .created(first.getCreated())
+                .items(new ArrayList<>())
+                .build();
+        for (ItemRequestRowDto row : rows) {
+            if (row.getItemId() != null) {
+                request.getItems().add(new ItemDataForRequestDto(row.getItemId(), row.getItemName(),
+                        row.getItemDescription(), row.getItemAvailable(), row.getId()));
+            }
+        }
+        return request;
+    }
+
+    /**
+     * Отображает страницу Запросов и прикрепляет к ним ответы одним запросом по идентификаторам Запросов
+     */
+    private List<RequestDtoResponseWithMD> withItems(List<ItemRequestDtoResponse> page) {
+        Map<Long, RequestDtoResponseWithMD> requestsById = new LinkedHashMap<>();
+        for (ItemRequestDtoResponse request : page) {
+            RequestDtoResponseWithMD dto = mapper.mapToRequestDtoResponseWithoutItems(request);
+            dto.setItems(new ArrayList<>());
+            requestsById.put(dto.getId(), dto);
+        }
+        if (!requestsById.isEmpty()) {
+            for (ItemDataForRequestDto item : items.findAllDataByRequestIdIn(requestsById.keySet())) {
+                requestsById.get(item.getRequestId()).getItems().add(item);
+            }
+        }
+        return new ArrayList<>(requestsById.values());
+    }
+
+    private ItemRequestListDto toListDto(Pageable pageable, List<RequestDtoResponseWithMD> page) {
+        String nextCursor = null;
+        if (page.size() == pageable.getPageSize()) {
+            RequestDtoResponseWithMD last = page.get(page.size() - 1);
+            nextCursor = PageCursor.of(last.getCreated(), last.getId()).encode();
+        }
+        return ItemRequestListDto.builder().requests(page).nextCursor(nextCursor).build();
     }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.item.service.ItemDetailCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoResponse;
 import ru.practicum.shareit.user.dto.UserDtoUpdate;
@@ -23,6 +24,7 @@ public class UserServiceImpl implements UserService {
     private final UserRepository users;
 
     private final UserMapper mapper;
+    private final ItemDetailCache detailCache;
 
     @Override
     public UserDtoResponse createUser(UserDto user) {
@@ -30,6 +32,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDtoResponse getUserById(Long id) {
         return mapper.mapToUserDtoResponse(users.findById(id).orElseThrow(
                 () -> new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Пользователя с id=%s нет", id)))
@@ -37,6 +40,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserListDto getUsers() {
         return UserListDto.builder()
                 .users(users.findAll().stream().map(mapper::mapToUserDtoResponse).collect(Collectors.toList()))
@@ -47,7 +51,14 @@ public class UserServiceImpl implements UserService {
     @Transactional(propagation = Propagation.SUPPORTS)
     public UserDtoResponse updateUser(UserDtoUpdate user, Long userId) {
         User updatingUser = users.findById(userId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Пользователя с id=%s нет", userId)));
-        return mapper.mapToUserDtoResponse(users.save(mapper.mapToUserFromUserDtoUpdate(user, updatingUser)));
+        boolean renamed = user.getName() != null && !user.getName().equals(updatingUser.getName());
+        UserDtoResponse updated = mapper.mapToUserDtoResponse(
+                users.save(mapper.mapToUserFromUserDtoUpdate(user, updatingUser)));
+        if (renamed) {
+            // Имя автора хранится в кэшированных Комментариях
+            detailCache.evictAllDetails();
+        }
+        return updated;
     }
 
     @Override
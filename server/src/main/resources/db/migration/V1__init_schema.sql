@@ -1,5 +1,3 @@
-DROP TABLE IF EXISTS comments, requests, bookings, items, users CASCADE ;
-
 CREATE TABLE IF NOT EXISTS users
 (
     user_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -0,0 +1,16 @@
+-- Листинги бронирований автора: WHERE booker_id = ? [AND status = ?] ORDER BY start_date DESC, booking_id
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, booking_id);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC);
+
+-- Листинги бронирований владельца (через items.owner_id), последнее и следующее бронирование Вещи
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+-- Проверка права оставить комментарий: item_id, booker_id, status, end_date < now
+CREATE INDEX IF NOT EXISTS idx_bookings_item_booker_status_end ON bookings (item_id, booker_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, item_id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, created DESC);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
\ No newline at end of file
@@ -0,0 +1,12 @@
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS phase VARCHAR(16);
+
+UPDATE bookings
+SET phase = CASE
+                WHEN LOCALTIMESTAMP < start_date THEN 'FUTURE'
+                WHEN LOCALTIMESTAMP < end_date THEN 'CURRENT'
+                ELSE 'PAST'
+    END;
+
+-- Фильтры CURRENT/PAST/FUTURE выполняются сравнением по фазе вместо диапазонов по датам
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_phase_start ON bookings (booker_id, phase, start_date DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_phase_start ON bookings (item_id, phase, start_date);
\ No newline at end of file
@@ -0,0 +1,165 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.common.PageCursor;
+import ru.practicum.shareit.common.QueryCounter;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.practicum.shareit.common.TestEntities.booking;
+import static ru.practicum.shareit.common.TestEntities.comment;
+import static ru.practicum.shareit.common.TestEntities.item;
+import static ru.practicum.shareit.common.TestEntities.request;
+import static ru.practicum.shareit.common.TestEntities.user;
+
+/**
+ * Закрепляет план запросов каждой точки входа: число SQL-операторов и прочитанных строк результата.
+ * Рост любого из чисел означает N+1, лишнюю загрузку связей или размножение строк соединением.
+ * <p>
+ * Данные: у владельца две Вещи, у первой два Комментария, прошлое и будущее подтверждённые
+ * бронирования, вторая отвечает на Запрос автора бронирований и забронирована им в статусе WAITING.
+ */
+@SpringBootTest
+@Import(QueryCounter.Config.class)
+class EndpointQueryCountTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private UserRepository users;
+    @Autowired
+    private ItemRepository items;
+    @Autowired
+    private BookingRepository bookings;
+    @Autowired
+    private CommentRepository comments;
+    @Autowired
+    private ItemRequestRepository requests;
+
+    private User owner;
+    private User booker;
+    private Item drill;
+    private Booking past;
+    private Booking waiting;
+    private ItemRequest request;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        owner = users.save(user("owner"));
+        booker = users.save(user("booker"));
+        request = requests.save(request(booker, "ladder", now));
+        drill = items.save(item(owner, "drill"));
+        Item ladder = item(owner, "ladder");
+        ladder.setRequest(request);
+        ladder = items.save(ladder);
+        comments.save(comment(drill, booker, "good", now.minusDays(1)));
+        comments.save(comment(drill, booker, "fine", now.minusHours(1)));
+        past = bookings.save(booking(drill, booker, now.minusDays(3), now.minusDays(2), Status.APPROVED));
+        bookings.save(booking(drill, booker, now.plusDays(2), now.plusDays(3), Status.APPROVED));
+        waiting = bookings.save(booking(ladder, booker, now.plusDays(4), now.plusDays(5), Status.WAITING));
+        QueryCounter.reset();
+    }
+
+    @Test
+    void getBookingById() {
+        bookingService.getBookingByIdForOwnerAndBooker(past.getId(), booker.getId());
+
+        assertQueries(1, 1);
+    }
+
+    @Test
+    void getAllBookingsForUser() {
+        bookingService.getAllBookingsForUser(OffsetPageRequest.of(0, 10), null, booker.getId(), "ALL");
+
+        assertQueries(2, 1 + 3);
+    }
+
+    @Test
+    void getAllBookingsForItemsUser() {
+        bookingService.getAllBookingsForItemsUser(OffsetPageRequest.of(0, 10), null, owner.getId(), "ALL");
+
+        assertQueries(2, 1 + 3);
+    }
+
+    @Test
+    void approveBooking() {
+        bookingService.approveBooking(owner.getId(), waiting.getId(), true);
+
+        // условный UPDATE и чтение брони для ответа
+        assertQueries(2, 1);
+    }
+
+    @Test
+    void getPersonalItems() {
+        itemService.getPersonalItems(OffsetPageRequest.of(0, 10), null, owner.getId());
+
+        // пользователь, 2 Вещи, 2 Комментария, последнее и следующее бронирование
+        assertQueries(4, 1 + 2 + 2 + 2);
+    }
+
+    @Test
+    void getItemByItemIdForOwnerThenFromCache() {
+        itemService.getItemByItemId(owner.getId(), drill.getId(), OffsetPageRequest.of(0, 10));
+
+        // Вещь, Комментарии, последнее и следующее бронирование
+        assertQueries(3, 1 + 2 + 2);
+
+        QueryCounter.reset();
+        itemService.getItemByItemId(booker.getId(), drill.getId(), OffsetPageRequest.of(0, 10));
+
+        assertQueries(0, 0);
+    }
+
+    @Test
+    void getPrivateRequests() {
+        itemRequestService.getPrivateRequests(OffsetPageRequest.of(0, 10), null, booker.getId());
+
+        // пользователь, Запрос, ответившая на него Вещь
+        assertQueries(3, 1 + 1 + 1);
+    }
+
+    @Test
+    void getOtherRequests() {
+        PageCursor fromRequest = PageCursor.of(request.getCreated(), request.getId() - 1);
+
+        itemRequestService.getOtherRequests(OffsetPageRequest.of(0, 1), fromRequest, owner.getId());
+
+        assertQueries(3, 1 + 1 + 1);
+    }
+
+    @Test
+    void getItemRequest() {
+        itemRequestService.getItemRequest(owner.getId(), request.getId());
+
+        // пользователь, Запрос вместе с Вещью одним соединением
+        assertQueries(2, 1 + 1);
+    }
+
+    private static void assertQueries(long statements, long rows) {
+        assertEquals(statements, QueryCounter.statements(), "SQL-операторы");
+        assertEquals(rows, QueryCounter.rows(), "строки результата");
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Планы H2 для запросов, под которые миграция V2 создала индексы. Условия повторяют ведущие столбцы
+ * индексов, поэтому составной индекс оказывается дешевле индекса внешнего ключа.
+ * <p>
+ * idx_items_request и idx_comments_item состоят из одного столбца внешнего ключа. H2 сам индексирует
+ * внешние ключи и при равной стоимости берёт свой индекс, поэтому для них проверяется только отсутствие
+ * полного просмотра таблицы; в PostgreSQL внешние ключи не индексируются, и там нужны именно они.
+ */
+@SpringBootTest
+class QueryIndexesTest {
+    private static final String MOMENT = "TIMESTAMP '2030-01-01 00:00:00'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void bookerListingUsesBookerStartIndex() {
+        assertIndex("IDX_BOOKINGS_BOOKER_START", "SELECT * FROM bookings " +
+                "WHERE booker_id = 1 AND start_date < " + MOMENT + " ORDER BY start_date DESC, booking_id");
+    }
+
+    @Test
+    void bookerListingByStatusUsesBookerStatusStartIndex() {
+        assertIndex("IDX_BOOKINGS_BOOKER_STATUS_START", "SELECT * FROM bookings " +
+                "WHERE booker_id = 1 AND status = 'WAITING' AND start_date < " + MOMENT + " ORDER BY start_date DESC");
+    }
+
+    @Test
+    void lastAndNextBookingsUseItemStatusStartIndex() {
+        assertIndex("IDX_BOOKINGS_ITEM_STATUS_START", "SELECT * FROM bookings " +
+                "WHERE item_id = 1 AND status = 'APPROVED' AND start_date < " + MOMENT);
+    }
+
+    @Test
+    void commentPermissionCheckUsesItemBookerStatusEndIndex() {
+        assertIndex("IDX_BOOKINGS_ITEM_BOOKER_STATUS_END", "SELECT 1 FROM bookings " +
+                "WHERE item_id = 1 AND booker_id = 2 AND status = 'APPROVED' AND end_date < " + MOMENT);
+    }
+
+    @Test
+    void ownerItemsUseOwnerIndex() {
+        assertIndex("IDX_ITEMS_OWNER", "SELECT * FROM items WHERE owner_id = 1 AND item_id > 0 ORDER BY item_id");
+    }
+
+    @Test
+    void requesterRequestsUseRequesterCreatedIndex() {
+        assertIndex("IDX_REQUESTS_REQUESTER_CREATED", "SELECT * FROM requests " +
+                "WHERE requester_id = 1 AND created < " + MOMENT + " ORDER BY created DESC");
+    }
+
+    @Test
+    void requestItemsAndItemCommentsAreNotScanned() {
+        assertFalse(plan("SELECT * FROM items WHERE request_id IN (1, 2)").contains("tableScan"));
+        assertFalse(plan("SELECT * FROM comments WHERE item_id IN (1, 2)").contains("tableScan"));
+    }
+
+    private void assertIndex(String index, String sql) {
+        String plan = plan(sql);
+        assertTrue(plan.contains("PUBLIC." + index + ":"), () -> index + " не используется:\n" + plan);
+    }
+
+    private String plan(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.common.TestEntities.booking;
+import static ru.practicum.shareit.common.TestEntities.item;
+import static ru.practicum.shareit.common.TestEntities.user;
+
+/**
+ * Неизвестный Пользователь получает 404 до начала потоковой выгрузки, а не оборванный ответ 200.
+ * Выгрузка содержит только брони Пользователя, по одному JSON-объекту в строке, от новых к старым.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingExportTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository users;
+    @Autowired
+    private ItemRepository items;
+    @Autowired
+    private BookingRepository bookings;
+
+    @Test
+    void exportForUnknownUserIsNotFound() throws Exception {
+        mockMvc.perform(get("/bookings/export").header("X-Sharer-User-Id", Long.MAX_VALUE))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void exportForKnownUserStreamsBookingsAsNdjson() throws Exception {
+        User booker = users.save(user("booker"));
+        Item item = items.save(item(users.save(user("owner")), "drill"));
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        Booking oldest = bookings.save(booking(item, booker, start, start.plusHours(1), Status.APPROVED));
+        Booking newest = bookings.save(booking(item, booker, start.plusDays(2), start.plusDays(2).plusHours(1),
+                Status.WAITING));
+        Booking middle = bookings.save(booking(item, booker, start.plusDays(1), start.plusDays(1).plusHours(1),
+                Status.REJECTED));
+        bookings.save(booking(item, users.save(user("other")), start.plusDays(3), start.plusDays(3).plusHours(1),
+                Status.APPROVED));
+
+        MvcResult result = mockMvc.perform(get("/bookings/export").header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+
+        String body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(body.endsWith("\n"), "каждая строка выгрузки завершается переводом строки");
+        List<Long> ids = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            JsonNode booking = objectMapper.readTree(line);
+            assertTrue(booking.isObject(), "строка выгрузки — один JSON-объект: " + line);
+            assertEquals(booker.getId(), booking.path("booker").path("id").asLong());
+            ids.add(booking.path("id").asLong());
+        }
+        assertEquals(List.of(newest.getId(), middle.getId(), oldest.getId()), ids);
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static ru.practicum.shareit.common.TestEntities.booking;
+import static ru.practicum.shareit.common.TestEntities.item;
+import static ru.practicum.shareit.common.TestEntities.user;
+
+/**
+ * Пакетное подтверждение броней: каждое решение получает свой код, а статус в базе меняется
+ * только у броней с кодом 200
+ */
+@SpringBootTest
+class BookingBulkApprovalTest {
+    private static final AtomicInteger DAYS = new AtomicInteger();
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookings;
+    @Autowired
+    private UserRepository users;
+    @Autowired
+    private ItemRepository items;
+
+    private LocalDateTime start;
+    private User owner;
+    private Item item;
+    private Item foreignItem;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        start = LocalDateTime.of(2100, 1, 1, 12, 0).plusDays(DAYS.incrementAndGet());
+        owner = users.save(user("owner"));
+        item = items.save(item(owner, "drill"));
+        foreignItem = items.save(item(users.save(user("stranger")), "saw"));
+        booker = users.save(user("booker"));
+    }
+
+    @Test
+    void approveAndRejectInOneRequest() {
+        Booking approved = save(item, 0, Status.WAITING);
+        Booking rejected = save(item, 2, Status.WAITING);
+
+        List<BookingDecisionResultDto> results = approve(
+                decision(approved, true), decision(rejected, false));
+
+        assertResult(results.get(0), approved.getId(), 200);
+        assertEquals(Status.APPROVED, results.get(0).getBooking().getStatus());
+        assertResult(results.get(1), rejected.getId(), 200);
+        assertEquals(Status.REJECTED, results.get(1).getBooking().getStatus());
+        assertStatus(approved, Status.APPROVED);
+        assertStatus(rejected, Status.REJECTED);
+    }
+
+    @Test
+    void foreignBookingIsRejectedWithoutTouchingOwnBookings() {
+        Booking own = save(item, 0, Status.WAITING);
+        Booking foreign = save(foreignItem, 0, Status.WAITING);
+
+        List<BookingDecisionResultDto> results = approve(decision(foreign, true), decision(own, true));
+
+        assertResult(results.get(0), foreign.getId(), 404);
+        assertResult(results.get(1), own.getId(), 200);
+        assertStatus(foreign, Status.WAITING);
+        assertStatus(own, Status.APPROVED);
+    }
+
+    @Test
+    void decidedBookingIsRejectedWithBadRequest() {
+        Booking waiting = save(item, 0, Status.WAITING);
+        Booking canceled = save(item, 2, Status.CANCELED);
+
+        List<BookingDecisionResultDto> results = approve(decision(canceled, true), decision(waiting, false));
+
+        assertResult(results.get(0), canceled.getId(), 400);
+        assertResult(results.get(1), waiting.getId(), 200);
+        assertStatus(canceled, Status.CANCELED);
+        assertStatus(waiting, Status.REJECTED);
+    }
+
+    @Test
+    void missingBookingIsRejectedWithNotFound() {
+        Booking waiting = save(item, 0, Status.WAITING);
+
+        List<BookingDecisionResultDto> results = approve(
+                BookingDecisionDto.builder().bookingId(Long.MAX_VALUE).approved(true).build(),
+                decision(waiting, true));
+
+        assertResult(results.get(0), Long.MAX_VALUE, 404);
+        assertResult(results.get(1), waiting.getId(), 200);
+        assertStatus(waiting, Status.APPROVED);
+    }
+
+    @Test
+    void duplicateBookingIdIsDecidedOnceByFirstDecision() {
+        Booking waiting = save(item, 0, Status.WAITING);
+
+        List<BookingDecisionResultDto> results = approve(
+                decision(waiting, false), decision(waiting, true), decision(waiting, false));
+
+        assertEquals(1, results.size());
+        assertResult(results.get(0), waiting.getId(), 200);
+        assertStatus(waiting, Status.REJECTED);
+    }
+
+    private List<BookingDecisionResultDto> approve(BookingDecisionDto... decisions) {
+        return bookingService.approveBookings(owner.getId(), List.of(decisions)).getResults();
+    }
+
+    private Booking save(Item bookedItem, long hours, Status status) {
+        return bookings.save(booking(bookedItem, booker, start.plusHours(hours), start.plusHours(hours + 1), status));
+    }
+
+    private static BookingDecisionDto decision(Booking booking, boolean approved) {
+        return BookingDecisionDto.builder().bookingId(booking.getId()).approved(approved).build();
+    }
+
+    private static void assertResult(BookingDecisionResultDto result, Long bookingId, int code) {
+        assertEquals(bookingId, result.getBookingId());
+        assertEquals(code, result.getCode(), () -> "код решения по брони " + bookingId + ": " + result.getError());
+        if (code == 200) {
+            assertNotNull(result.getBooking());
+            assertNull(result.getError());
+        } else {
+            assertNull(result.getBooking());
+            assertNotNull(result.getError());
+        }
+    }
+
+    private void assertStatus(Booking expected, Status status) {
+        assertEquals(status, bookings.findById(expected.getId()).orElseThrow().getStatus(),
+                "статус брони " + expected.getId());
+    }
+}
@@ -0,0 +1,170 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.common.TestEntities.item;
+import static ru.practicum.shareit.common.TestEntities.user;
+
+@Slf4j
+@SpringBootTest
+class BookingIntervalIndexTest {
+    private static final int THREADS = 16;
+    private static final String OVERLAPPING_PAIRS = "SELECT COUNT(*) FROM bookings AS a " +
+            "JOIN bookings AS b ON b.item_id = a.item_id AND b.booking_id > a.booking_id " +
+            "AND b.start_date < a.end_date AND a.start_date < b.end_date " +
+            "WHERE a.item_id = ? AND a.status IN ('WAITING', 'APPROVED') AND b.status IN ('WAITING', 'APPROVED')";
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingIntervalIndex intervalIndex;
+    @Autowired
+    private UserRepository users;
+    @Autowired
+    private ItemRepository items;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<User> bookers = new ArrayList<>();
+    private ExecutorService executor;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        item = items.save(item(users.save(user("owner")), "drill"));
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(users.save(user("booker" + i)));
+        }
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentOverlappingBookingsOfOneItemCreateOneBooking() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            User booker = bookers.get(i);
+            LocalDateTime bookingStart = start.plusMinutes(i);
+            tasks.add(() -> {
+                try {
+                    book(booker, bookingStart, bookingStart.plusHours(2));
+                    return true;
+                } catch (ResponseStatusException e) {
+                    assertEquals(HttpStatus.CONFLICT, e.getStatus());
+                    conflicts.incrementAndGet();
+                    return false;
+                }
+            });
+        }
+
+        long created = runTogether(tasks).stream().filter(Boolean::booleanValue).count();
+
+        assertEquals(1, created);
+        assertEquals(THREADS - 1, conflicts.get());
+        assertEquals(0, overlappingPairs());
+    }
+
+    @Test
+    void concurrentDisjointBookingsOfOneItemAllSucceed() throws Exception {
+        int perThread = 25;
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            User booker = bookers.get(i);
+            int thread = i;
+            tasks.add(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    LocalDateTime slot = start.plusHours((long) thread * perThread + j);
+                    book(booker, slot, slot.plusHours(1));
+                }
+                return true;
+            });
+        }
+
+        long began = System.nanoTime();
+        runTogether(tasks);
+        long elapsed = System.nanoTime() - began;
+
+        int bookings = THREADS * perThread;
+        log.info("{} бронирований одной Вещи из {} потоков за {} мс: {} брони/с", bookings, THREADS,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), bookings * TimeUnit.SECONDS.toNanos(1) / elapsed);
+        assertEquals(bookings, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings WHERE item_id = ?", Integer.class, item.getId()));
+        assertEquals(0, overlappingPairs());
+    }
+
+    @Test
+    void itemIsEvictedWhenItsLastActiveIntervalIsReleased() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long bookingId = book(bookers.get(0), start, start.plusDays(1));
+
+        intervalIndex.evictExpired();
+        assertTrue(intervalIndex.contains(item.getId()));
+
+        bookingService.approveBooking(item.getOwner().getId(), bookingId, false);
+        assertFalse(intervalIndex.contains(item.getId()));
+    }
+
+    private Long book(User booker, LocalDateTime start, LocalDateTime end) {
+        return bookingService.createBooking(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(end)
+                .build()).getId();
+    }
+
+    private <T> List<T> runTogether(List<Callable<T>> tasks) throws Exception {
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (Callable<T> task : tasks) {
+            futures.add(executor.submit(() -> {
+                ready.await();
+                return task.call();
+            }));
+        }
+        ready.countDown();
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get(1, TimeUnit.MINUTES));
+        }
+        return results;
+    }
+
+    private int overlappingPairs() {
+        return jdbcTemplate.queryForObject(OVERLAPPING_PAIRS, Integer.class, item.getId());
+    }
+}
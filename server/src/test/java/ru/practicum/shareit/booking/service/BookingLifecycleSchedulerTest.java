@@ -0,0 +1,154 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.enums.Phase;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.MutableClock;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.practicum.shareit.common.TestEntities.booking;
+import static ru.practicum.shareit.common.TestEntities.item;
+import static ru.practicum.shareit.common.TestEntities.user;
+
+/**
+ * Планировщик с часами, которые сдвигает тест. Экземпляр создаётся в тесте поверх бинов контекста,
+ * поэтому фоновый планировщик приложения с системными часами в проверках не участвует.
+ * Время тестов лежит в прошлом, чтобы пересчёт при старте не трогал текущие брони других тестов.
+ */
+@SpringBootTest
+class BookingLifecycleSchedulerTest {
+    private static final long TICK_MILLIS = 250;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final AtomicInteger DAYS = new AtomicInteger();
+
+    @Autowired
+    private BookingRepository bookings;
+    @Autowired
+    private BookingIntervalIndex intervalIndex;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private UserRepository users;
+    @Autowired
+    private ItemRepository items;
+
+    private LocalDateTime now;
+    private MutableClock clock;
+    private Item item;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.of(2000, 1, 1, 12, 0).plusDays(DAYS.incrementAndGet());
+        clock = new MutableClock(now.atZone(ZONE).toInstant(), ZONE);
+        item = items.save(item(users.save(user("owner")), "drill"));
+        booker = users.save(user("booker"));
+    }
+
+    @Test
+    void startRecomputesPhasesAndExpiresOverdueWaiting() {
+        Booking past = save(now.minusHours(3), now.minusHours(2), Status.APPROVED, Phase.FUTURE);
+        Booking current = save(now.minusHours(1), now.plusHours(1), Status.APPROVED, Phase.FUTURE);
+        Booking future = save(now.plusHours(1), now.plusHours(2), Status.APPROVED, Phase.PAST);
+        Booking overdue = save(now.minusMinutes(5), now.plusHours(3), Status.WAITING, Phase.FUTURE);
+
+        scheduler(Duration.ZERO).start();
+
+        assertBooking(past, Phase.PAST, Status.APPROVED);
+        assertBooking(current, Phase.CURRENT, Status.APPROVED);
+        assertBooking(future, Phase.FUTURE, Status.APPROVED);
+        assertBooking(overdue, Phase.CURRENT, Status.CANCELED);
+    }
+
+    @Test
+    void phaseFollowsStartAndEndAsClockAdvances() {
+        Booking booking = save(now.plusHours(1), now.plusHours(2), Status.APPROVED, Phase.FUTURE);
+        BookingLifecycleScheduler scheduler = scheduler(Duration.ZERO);
+        scheduler.start();
+
+        advanceAndTick(scheduler, Duration.ofMinutes(59));
+        assertBooking(booking, Phase.FUTURE, Status.APPROVED);
+
+        advanceAndTick(scheduler, Duration.ofMinutes(1).plusMillis(TICK_MILLIS));
+        assertBooking(booking, Phase.CURRENT, Status.APPROVED);
+
+        advanceAndTick(scheduler, Duration.ofHours(1));
+        assertBooking(booking, Phase.PAST, Status.APPROVED);
+    }
+
+    @Test
+    void startAndEndWithinOneTickLeaveBookingPast() {
+        Booking booking = save(now.plusMinutes(10), now.plusMinutes(10).plusNanos(1_000), Status.APPROVED,
+                Phase.FUTURE);
+        BookingLifecycleScheduler scheduler = scheduler(Duration.ZERO);
+        scheduler.start();
+
+        advanceAndTick(scheduler, Duration.ofMinutes(11));
+
+        assertBooking(booking, Phase.PAST, Status.APPROVED);
+    }
+
+    @Test
+    void waitingBookingIsCanceledOnlyAfterExpiry() {
+        Booking waiting = save(now.plusMinutes(30), now.plusHours(2), Status.WAITING, Phase.FUTURE);
+        Booking approved = save(now.plusHours(3), now.plusHours(4), Status.APPROVED, Phase.FUTURE);
+        BookingLifecycleScheduler scheduler = scheduler(Duration.ofMinutes(15));
+        scheduler.start();
+
+        advanceAndTick(scheduler, Duration.ofMinutes(31));
+        assertBooking(waiting, Phase.CURRENT, Status.WAITING);
+
+        advanceAndTick(scheduler, Duration.ofMinutes(15));
+        assertBooking(waiting, Phase.CURRENT, Status.CANCELED);
+        assertBooking(approved, Phase.FUTURE, Status.APPROVED);
+    }
+
+    @Test
+    void bookingScheduledAfterStartIsTracked() {
+        BookingLifecycleScheduler scheduler = scheduler(Duration.ZERO);
+        scheduler.start();
+        Booking booking = save(now.plusMinutes(5), now.plusMinutes(20), Status.WAITING, Phase.FUTURE);
+        scheduler.schedule(booking);
+
+        advanceAndTick(scheduler, Duration.ofMinutes(6));
+
+        assertBooking(booking, Phase.CURRENT, Status.CANCELED);
+    }
+
+    private BookingLifecycleScheduler scheduler(Duration waitingExpiry) {
+        return new BookingLifecycleScheduler(bookings, intervalIndex, transactionManager, clock, TICK_MILLIS,
+                waitingExpiry);
+    }
+
+    private void advanceAndTick(BookingLifecycleScheduler scheduler, Duration duration) {
+        clock.advance(duration);
+        scheduler.tick();
+    }
+
+    private Booking save(LocalDateTime start, LocalDateTime end, Status status, Phase phase) {
+        Booking booking = booking(item, booker, start, end, status);
+        booking.setPhase(phase);
+        return bookings.save(booking);
+    }
+
+    private void assertBooking(Booking expected, Phase phase, Status status) {
+        Booking actual = bookings.findById(expected.getId()).orElseThrow();
+        assertEquals(phase, actual.getPhase(), "фаза брони " + expected.getId());
+        assertEquals(status, actual.getStatus(), "статус брони " + expected.getId());
+    }
+}
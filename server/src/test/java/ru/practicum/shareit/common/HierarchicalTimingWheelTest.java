@@ -0,0 +1,86 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTest {
+    private static final long TICK = 10;
+    private static final int SIZE = 4;
+
+    @Test
+    void taskFiresNotBeforeDeadlineAndWithinOneTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, SIZE, 0);
+        assertTrue(wheel.add(25, "task"));
+
+        assertEquals(List.of(), wheel.advance(24));
+        assertEquals(List.of(), wheel.advance(29));
+        assertEquals(List.of("task"), wheel.advance(30));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void tasksCascadeFromUpperLevelsInDeadlineOrder() {
+        // уровни покрывают 40, 160 и 640 мс: задачи попадают на первый, второй и третий уровни
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, SIZE, 0);
+        List<Long> deadlines = List.of(600L, 35L, 170L, 45L, 159L, 641L, 400L);
+        deadlines.forEach(deadline -> wheel.add(deadline, deadline));
+        assertEquals(deadlines.size(), wheel.size());
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = 0; now <= 1000; now += TICK) {
+            for (Long deadline : wheel.advance(now)) {
+                assertTrue(deadline < now && now <= deadline + TICK,
+                        "задача со сроком " + deadline + " сработала в " + now);
+                fired.add(deadline);
+            }
+        }
+
+        assertEquals(List.of(35L, 45L, 159L, 170L, 400L, 600L, 641L), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advanceOverManyRotationsAtOnceFiresEverything() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, SIZE, 1_000);
+        wheel.add(1_005L, 1_005L);
+        wheel.add(5_000L, 5_000L);
+        wheel.add(90_000L, 90_000L);
+
+        assertEquals(List.of(1_005L, 5_000L), wheel.advance(10_000));
+        assertEquals(List.of(90_000L), wheel.advance(100_000));
+    }
+
+    @Test
+    void taskAddedAfterAdvanceLandsInRotatedBuckets() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, SIZE, 0);
+        wheel.advance(1_000);
+        wheel.add(1_015L, 1_015L);
+        wheel.add(1_300L, 1_300L);
+
+        assertEquals(List.of(1_015L), wheel.advance(1_020));
+        assertEquals(List.of(), wheel.advance(1_300));
+        assertEquals(List.of(1_300L), wheel.advance(1_310));
+    }
+
+    @Test
+    void pastDeadlineIsRejected() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, SIZE, 100);
+
+        assertFalse(wheel.add(99, "late"));
+        assertTrue(wheel.add(100, "now"));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void invalidGeometryIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<>(0, SIZE, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<>(TICK, 1, 0));
+    }
+}
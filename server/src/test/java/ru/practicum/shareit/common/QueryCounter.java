@@ -0,0 +1,120 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Считает SQL-операторы и прочитанные строки результата в текущем потоке. Фоновые задачи приложения
+ * (планировщик броней, загрузка индексов) выполняются в других потоках и в счёт не попадают.
+ * <p>
+ * Подключается к тесту через {@link Config}, который оборачивает DataSource приложения.
+ */
+public final class QueryCounter {
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[2]);
+
+    private QueryCounter() {
+    }
+
+    public static void reset() {
+        COUNTS.remove();
+    }
+
+    /**
+     * Число операторов, выполненных в текущем потоке после reset()
+     */
+    public static long statements() {
+        return COUNTS.get()[0];
+    }
+
+    /**
+     * Число строк результата, прочитанных в текущем потоке после reset()
+     */
+    public static long rows() {
+        return COUNTS.get()[1];
+    }
+
+    private static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection ? proxy(Connection.class, (Connection) result, QueryCounter::statement)
+                    : result;
+        });
+    }
+
+    private static Object statement(Object connection, Method method, Object[] args)
+            throws Throwable {
+        Object result = invoke(connection, method, args);
+        if (result instanceof Statement) {
+            return proxyStatement(method.getReturnType().asSubclass(Statement.class), result);
+        }
+        return result;
+    }
+
+    private static <S extends Statement> S proxyStatement(Class<S> type, Object statement) {
+        return proxy(type, type.cast(statement), (target, method, args) -> {
+            if (EXECUTE_METHODS.contains(method.getName())) {
+                COUNTS.get()[0]++;
+            }
+            Object value = invoke(target, method, args);
+            return value instanceof ResultSet ? resultSet((ResultSet) value) : value;
+        });
+    }
+
+    private static ResultSet resultSet(ResultSet resultSet) {
+        return proxy(ResultSet.class, resultSet, (target, method, args) -> {
+            Object value = invoke(target, method, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(value)) {
+                COUNTS.get()[1]++;
+            }
+            return value;
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, T target, TargetHandler handler) {
+        InvocationHandler invocation = (proxy, method, args) -> handler.invoke(target, method, args);
+        return type.cast(Proxy.newProxyInstance(QueryCounter.class.getClassLoader(), new Class<?>[]{type},
+                invocation));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface TargetHandler {
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    /**
+     * Оборачивает DataSource приложения счётчиком; подключается через @Import(QueryCounter.Config.class)
+     */
+    @TestConfiguration
+    public static class Config {
+        @Bean
+        public static BeanPostProcessor queryCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? wrap((DataSource) bean) : bean;
+                }
+            };
+        }
+    }
+}
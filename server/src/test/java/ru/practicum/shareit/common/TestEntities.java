@@ -0,0 +1,65 @@
+package ru.practicum.shareit.common;
+
+import ru.practicum.shareit.booking.enums.Phase;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Несохранённые сущности для тестов. Email пользователя уникален, поэтому тесты, работающие
+ * с общей базой H2 одного контекста, не мешают друг другу.
+ */
+public final class TestEntities {
+    private TestEntities() {
+    }
+
+    public static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "-" + UUID.randomUUID() + "@example.com");
+        return user;
+    }
+
+    public static Item item(User owner, String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(name + " description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return item;
+    }
+
+    public static Booking booking(Item item, User booker, LocalDateTime start, LocalDateTime end, Status status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        booking.setPhase(Phase.of(start, end, LocalDateTime.now()));
+        return booking;
+    }
+
+    public static Comment comment(Item item, User author, String text, LocalDateTime created) {
+        Comment comment = new Comment();
+        comment.setItem(item);
+        comment.setAuthor(author);
+        comment.setText(text);
+        comment.setCreated(created);
+        return comment;
+    }
+
+    public static ItemRequest request(User requester, String description, LocalDateTime created) {
+        ItemRequest request = new ItemRequest();
+        request.setRequester(requester);
+        request.setDescription(description);
+        request.setCreated(created);
+        return request;
+    }
+}
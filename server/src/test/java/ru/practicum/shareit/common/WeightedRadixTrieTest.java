@@ -0,0 +1,126 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WeightedRadixTrieTest {
+    @Test
+    void insertSplitsSharedEdge() {
+        WeightedRadixTrie trie = new WeightedRadixTrie();
+        trie.update("дрель", 1, 5);
+        trie.update("дрезина", 1, 3);
+        trie.update("дре", 1, 1);
+
+        assertEquals(3, trie.size());
+        assertEquals(List.of("дрель", "дрезина", "дре"), keys(trie.top("д", 10)));
+        assertEquals(List.of("дрель"), keys(trie.top("дрел", 10)));
+        assertEquals(List.of("дрезина"), keys(trie.top("дрез", 10)));
+        assertEquals(List.of(), keys(trie.top("дрема", 10)));
+    }
+
+    @Test
+    void removeMergesEdgesBack() {
+        WeightedRadixTrie trie = new WeightedRadixTrie();
+        trie.update("дрель", 1, 5);
+        trie.update("дрезина", 1, 3);
+        trie.update("дре", 1, 1);
+
+        trie.update("дрезина", -1, -3);
+        trie.update("дре", -1, -1);
+
+        assertEquals(1, trie.size());
+        assertEquals(List.of("дрель"), keys(trie.top("д", 10)));
+        assertEquals(List.of("дрель"), keys(trie.top("дрел", 10)));
+        assertEquals(List.of(), keys(trie.top("дрез", 10)));
+
+        // после слияния рёбер разбиение по новому ключу работает как в пустом дереве
+        trie.update("дрем", 1, 7);
+        assertEquals(List.of("дрем", "дрель"), keys(trie.top("дре", 10)));
+    }
+
+    @Test
+    void keyStaysWhileReferenced() {
+        WeightedRadixTrie trie = new WeightedRadixTrie();
+        trie.update("пила", 1, 2);
+        trie.update("пила", 1, 3);
+
+        trie.update("пила", -1, -2);
+        assertEquals(1, trie.size());
+        assertEquals(3, trie.top("пила", 1).get(0).getWeight());
+
+        trie.update("пила", -1, -3);
+        assertEquals(0, trie.size());
+        assertEquals(List.of(), trie.top("", 10));
+    }
+
+    @Test
+    void topOrdersByWeightThenKeyAndRespectsLimit() {
+        WeightedRadixTrie trie = new WeightedRadixTrie();
+        trie.update("лыжи", 1, 4);
+        trie.update("лопата", 1, 9);
+        trie.update("лобзик", 1, 4);
+        trie.update("лестница", 1, 4);
+        trie.update("молоток", 1, 100);
+
+        List<WeightedRadixTrie.Entry> top = trie.top("л", 3);
+
+        assertEquals(List.of("лопата", "лестница", "лобзик"), keys(top));
+        assertEquals(List.of(9L, 4L, 4L), top.stream().map(WeightedRadixTrie.Entry::getWeight)
+                .collect(Collectors.toList()));
+        assertEquals(List.of("лопата", "лестница", "лобзик", "лыжи"), keys(trie.top("л", 10)));
+    }
+
+    @Test
+    void prefixEndingMidEdgeFindsKeysBelowEdge() {
+        WeightedRadixTrie trie = new WeightedRadixTrie();
+        trie.update("перфоратор", 1, 2);
+        trie.update("перфокарта", 1, 1);
+
+        // после разбиения ребро «перфо» ведёт к «ратор» и «карта», префикс заканчивается внутри них
+        assertEquals(List.of("перфоратор", "перфокарта"), keys(trie.top("пер", 10)));
+        assertEquals(List.of("перфоратор"), keys(trie.top("перфор", 10)));
+        assertEquals(List.of("перфокарта"), keys(trie.top("перфок", 10)));
+        assertEquals(List.of(), keys(trie.top("перфорация", 10)));
+        assertEquals(List.of(), keys(trie.top("перфоратор-2", 10)));
+    }
+
+    @Test
+    void weightUpdateOfAbsentKeyChangesNothing() {
+        WeightedRadixTrie trie = new WeightedRadixTrie();
+        trie.update("самокат", 1, 1);
+        trie.update("сани", 1, 2);
+
+        // нет ребра, ребро расходится с ключом, промежуточный узел «са» и уход ниже нуля
+        trie.update("велосипед", 0, 10);
+        trie.update("самолёт", 0, 10);
+        trie.update("са", 0, 10);
+        trie.update("сам", 0, 10);
+        trie.update("лыжи", -1, -10);
+
+        assertEquals(2, trie.size());
+        assertEquals(List.of("сани", "самокат"), keys(trie.top("са", 10)));
+        assertEquals(List.of(2L, 1L), trie.top("са", 10).stream().map(WeightedRadixTrie.Entry::getWeight)
+                .collect(Collectors.toList()));
+        assertEquals(List.of(), keys(trie.top("в", 10)));
+    }
+
+    @Test
+    void weightUpdateReordersExistingKeys() {
+        WeightedRadixTrie trie = new WeightedRadixTrie();
+        trie.update("тачка", 1, 1);
+        trie.update("табурет", 1, 2);
+
+        trie.update("тачка", 0, 5);
+
+        assertEquals(List.of("тачка", "табурет"), keys(trie.top("т", 10)));
+        assertEquals(6, trie.top("тачка", 1).get(0).getWeight());
+    }
+
+    private static List<String> keys(List<WeightedRadixTrie.Entry> entries) {
+        return entries.stream().map(WeightedRadixTrie.Entry::getKey).collect(Collectors.toList());
+    }
+}
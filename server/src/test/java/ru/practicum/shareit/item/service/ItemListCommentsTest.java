@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.item.dto.CommentDtoResponse;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.practicum.shareit.common.TestEntities.comment;
+import static ru.practicum.shareit.common.TestEntities.item;
+import static ru.practicum.shareit.common.TestEntities.user;
+
+@SpringBootTest
+class ItemListCommentsTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository users;
+    @Autowired
+    private ItemRepository items;
+    @Autowired
+    private CommentRepository comments;
+
+    @Test
+    void personalItemsCarryLatestCommentsOfEachItem() {
+        User owner = users.save(user("owner"));
+        User author = users.save(user("author"));
+        LocalDateTime now = LocalDateTime.now();
+        Item popular = items.save(item(owner, "popular"));
+        Item quiet = items.save(item(owner, "quiet"));
+        for (int i = 0; i < ItemServiceImpl.LIST_COMMENTS + 5; i++) {
+            comments.save(comment(popular, author, "comment" + i, now.minusMinutes(i)));
+        }
+        comments.save(comment(quiet, author, "only", now.minusDays(1)));
+
+        List<ItemDtoResponse> page = itemService.getPersonalItems(OffsetPageRequest.of(0, 10), null, owner.getId())
+                .getItems();
+
+        assertEquals(2, page.size());
+        assertEquals(texts(ItemServiceImpl.LIST_COMMENTS), texts(page.get(0).getComments()));
+        assertEquals(List.of("only"), texts(page.get(1).getComments()));
+    }
+
+    private static List<String> texts(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "comment" + i).collect(Collectors.toList());
+    }
+
+    private static List<String> texts(List<CommentDtoResponse> comments) {
+        return comments.stream().map(CommentDtoResponse::getText).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.common.QueryCounter;
+import ru.practicum.shareit.item.dto.ItemListDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static ru.practicum.shareit.common.TestEntities.booking;
+import static ru.practicum.shareit.common.TestEntities.comment;
+import static ru.practicum.shareit.common.TestEntities.item;
+import static ru.practicum.shareit.common.TestEntities.user;
+
+/**
+ * Число SQL-операторов при выдаче списка Вещей владельца не зависит от размера страницы:
+ * Комментарии и последнее/следующее бронирование загружаются пакетно для всей страницы
+ */
+@SpringBootTest
+@Import(QueryCounter.Config.class)
+class ItemServiceQueryCountTest {
+    private static final int ITEMS = 50;
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository users;
+    @Autowired
+    private ItemRepository items;
+    @Autowired
+    private BookingRepository bookings;
+    @Autowired
+    private CommentRepository comments;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = users.save(user("owner"));
+        User booker = users.save(user("booker"));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = items.save(item(owner, "item" + i));
+            bookings.save(booking(item, booker, now.minusDays(3), now.minusDays(2), Status.APPROVED));
+            bookings.save(booking(item, booker, now.plusDays(2), now.plusDays(3), Status.APPROVED));
+            comments.save(comment(item, booker, "comment" + i, now.minusDays(1)));
+        }
+    }
+
+    @Test
+    void getPersonalItemsStatementCountDoesNotDependOnPageSize() {
+        long singleItemPage = statementsForPage(1);
+        long fullPage = statementsForPage(ITEMS);
+
+        assertEquals(singleItemPage, fullPage);
+    }
+
+    private long statementsForPage(int size) {
+        QueryCounter.reset();
+        ItemListDto page = itemService.getPersonalItems(OffsetPageRequest.of(0, size), null, owner.getId());
+        assertEquals(size, page.getItems().size());
+        page.getItems().forEach(item -> {
+            assertEquals(1, item.getComments().size());
+            assertNotNull(item.getLastBooking());
+            assertNotNull(item.getNextBooking());
+        });
+        return QueryCounter.statements();
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.request.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.common.PageCursor;
+import ru.practicum.shareit.common.QueryCounter;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestListDto;
+import ru.practicum.shareit.request.dto.RequestDtoResponseWithMD;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.practicum.shareit.common.TestEntities.item;
+import static ru.practicum.shareit.common.TestEntities.request;
+import static ru.practicum.shareit.common.TestEntities.user;
+
+/**
+ * Ленты Запросов строятся двумя запросами после проверки пользователя: страница Запросов и ответы
+ * на все Запросы страницы; один Запрос с ответами читается одним соединением
+ */
+@SpringBootTest
+@Import(QueryCounter.Config.class)
+class ItemRequestServiceQueryCountTest {
+    private static final int REQUESTS = 5;
+    private static final int ITEMS_PER_REQUEST = 3;
+    private static final long USER_CHECK = 1;
+    /**
+     * Каждый запуск setUp получает свой день, чтобы ленты не смешивали Запросы разных тестов
+     */
+    private static final AtomicInteger DAYS = new AtomicInteger();
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private UserRepository users;
+    @Autowired
+    private ItemRepository items;
+    @Autowired
+    private ItemRequestRepository requests;
+
+    private final List<ItemRequest> created = new ArrayList<>();
+    private User requester;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        requester = users.save(user("requester"));
+        owner = users.save(user("owner"));
+        LocalDateTime now = LocalDateTime.of(2000, 1, 1, 12, 0).plusDays(DAYS.incrementAndGet());
+        for (int i = 0; i < REQUESTS; i++) {
+            ItemRequest request = requests.save(request(requester, "request" + i, now.minusMinutes(i)));
+            created.add(request);
+            for (int j = 0; j < ITEMS_PER_REQUEST; j++) {
+                Item item = item(users.save(user("owner" + i + j)), "item" + i + j);
+                item.setRequest(request);
+                items.save(item);
+            }
+        }
+        QueryCounter.reset();
+    }
+
+    @Test
+    void privateRequestsTakeTwoStatementsAfterUserCheck() {
+        ItemRequestListDto page = itemRequestService.getPrivateRequests(
+                OffsetPageRequest.of(0, REQUESTS), null, requester.getId());
+
+        assertEquals(USER_CHECK + 2, QueryCounter.statements());
+        assertPage(page);
+    }
+
+    @Test
+    void otherRequestsTakeTwoStatementsAfterUserCheck() {
+        ItemRequest newest = created.get(0);
+        PageCursor fromNewest = PageCursor.of(newest.getCreated(), newest.getId() - 1);
+
+        ItemRequestListDto page = itemRequestService.getOtherRequests(
+                OffsetPageRequest.of(0, REQUESTS), fromNewest, owner.getId());
+
+        assertEquals(USER_CHECK + 2, QueryCounter.statements());
+        assertPage(page);
+    }
+
+    @Test
+    void itemRequestTakesOneStatementAfterUserCheck() {
+        RequestDtoResponseWithMD request = itemRequestService.getItemRequest(owner.getId(), created.get(0).getId());
+
+        assertEquals(USER_CHECK + 1, QueryCounter.statements());
+        assertEquals(ITEMS_PER_REQUEST, request.getItems().size());
+    }
+
+    private void assertPage(ItemRequestListDto page) {
+        assertEquals(REQUESTS, page.getRequests().size());
+        for (int i = 0; i < REQUESTS; i++) {
+            assertEquals(created.get(i).getId(), page.getRequests().get(i).getId());
+            assertEquals(ITEMS_PER_REQUEST, page.getRequests().get(i).getItems().size());
+        }
+    }
+}